@@ -0,0 +1,20 @@
+// Eine Seite aus einem Keyset-Endpoint: nextCursor ist null auf der letzten Seite
+class CursorPage<T> {
+  final List<T> items;
+  final String? nextCursor;
+
+  CursorPage({required this.items, this.nextCursor});
+
+  bool get hasMore => nextCursor != null;
+
+  factory CursorPage.fromJson(
+    Map<String, dynamic> json,
+    T Function(Map<String, dynamic>) fromJson,
+  ) {
+    List<dynamic> jsonList = json['items'];
+    return CursorPage(
+      items: jsonList.map((item) => fromJson(item)).toList(),
+      nextCursor: json['nextCursor'],
+    );
+  }
+}
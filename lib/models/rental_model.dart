@@ -27,7 +27,7 @@ class Rental {
       itemId: json['itemId'],
       itemName: json['itemName'],
       userId: json['userId'],
-      startDate: DateTime.parse(json['startDate']),
+      startDate: DateTime.parse(json['rentalDate']),
       endDate: DateTime.parse(json['endDate']),
       status: json['status'],
       itemBrand: json['itemBrand'],
@@ -1,6 +1,8 @@
+import 'dart:async';
 import 'package:flutter/material.dart';
 import 'package:flutter/cupertino.dart';
 import 'package:kreisel_frontend/models/item_model.dart';
+import 'package:kreisel_frontend/models/cursor_page.dart';
 import 'package:kreisel_frontend/pages/my_rentals_page.dart';
 import 'package:kreisel_frontend/services/api_service.dart';
 import 'package:kreisel_frontend/services/review_api_service.dart';
@@ -25,13 +27,15 @@ class _HomePageState extends State<HomePage> {
   final TextEditingController _searchController = TextEditingController();
   final ScrollController _scrollController = ScrollController();
   List<Item> _items = [];
-  List<Item> _filteredItems = [];
+  String? _nextCursor;
   bool _isLoading = true;
+  bool _isLoadingMore = false;
+  int _loadGeneration = 0; // verwirft Antworten zu veralteten Filtern
+  Timer? _searchDebounce;
   bool _showOnlyAvailable = true;
   String? _selectedGender;
   String? _selectedCategory;
   String? _selectedSubcategory;
-  String _sortBy = 'name'; // 'name', 'rating', 'availability'
 
   final Map<String, List<String>> categorySubcategories = {
     'KLEIDUNG': ['HOSEN', 'JACKEN'],
@@ -45,34 +49,39 @@ class _HomePageState extends State<HomePage> {
   void initState() {
     super.initState();
     _loadItems();
-    _searchController.addListener(_filterItems);
+    _searchController.addListener(_onSearchChanged);
+    _scrollController.addListener(_onScroll);
   }
 
   @override
   void dispose() {
+    _searchDebounce?.cancel();
     _searchController.dispose();
     _scrollController.dispose();
     super.dispose();
   }
 
+  // Erste Seite mit den aktuellen Filtern laden; gefiltert wird auf dem Server
   Future<void> _loadItems() async {
     if (!mounted) return;
 
-    setState(() => _isLoading = true);
+    final generation = ++_loadGeneration;
+    setState(() {
+      _isLoading = true;
+      _isLoadingMore = false;
+    });
 
     try {
-      final items = await ApiService.getItems(
-        location: widget.selectedLocation,
-      );
-      if (mounted) {
+      final page = await _fetchPage(null);
+      if (mounted && generation == _loadGeneration) {
         setState(() {
-          _items = items;
+          _items = page.items;
+          _nextCursor = page.nextCursor;
           _isLoading = false;
         });
-        _filterItems();
       }
     } catch (e) {
-      if (mounted) {
+      if (mounted && generation == _loadGeneration) {
         setState(() => _isLoading = false);
         _showAlert(
           'Fehler',
@@ -82,62 +91,57 @@ class _HomePageState extends State<HomePage> {
     }
   }
 
-  void _filterItems() {
-    if (!mounted) return;
+  // Nächste Seite anhängen, sobald das Ende der Liste in Sicht kommt
+  Future<void> _loadMore() async {
+    if (_isLoading || _isLoadingMore || _nextCursor == null) return;
 
-    setState(() {
-      _filteredItems =
-          _items.where((item) {
-            // Verfügbarkeitsfilter
-            if (_showOnlyAvailable && !item.available) return false;
-
-            // Suchfilter
-            if (_searchController.text.isNotEmpty) {
-              final query = _searchController.text.toLowerCase();
-              final searchFields = [
-                item.name.toLowerCase(),
-                item.brand?.toLowerCase() ?? '',
-                item.description?.toLowerCase() ?? '',
-                item.category.toLowerCase(),
-                item.subcategory.toLowerCase(),
-              ];
-
-              if (!searchFields.any((field) => field.contains(query))) {
-                return false;
-              }
-            }
-
-            // Kategoriefilter
-            if (_selectedGender != null && item.gender != _selectedGender)
-              return false;
-            if (_selectedCategory != null && item.category != _selectedCategory)
-              return false;
-            if (_selectedSubcategory != null &&
-                item.subcategory != _selectedSubcategory)
-              return false;
-
-            return true;
-          }).toList();
-
-      // Sortierung anwenden
-      _sortItems();
-    });
+    final generation = _loadGeneration;
+    setState(() => _isLoadingMore = true);
+
+    try {
+      final page = await _fetchPage(_nextCursor);
+      if (mounted && generation == _loadGeneration) {
+        setState(() {
+          _items.addAll(page.items);
+          _nextCursor = page.nextCursor;
+          _isLoadingMore = false;
+        });
+      }
+    } catch (e) {
+      if (mounted && generation == _loadGeneration) {
+        setState(() => _isLoadingMore = false);
+      }
+    }
   }
 
-  void _sortItems() {
-    switch (_sortBy) {
-      case 'name':
-        _filteredItems.sort((a, b) => a.name.compareTo(b.name));
-        break;
-      case 'availability':
-        _filteredItems.sort(
-          (a, b) => b.available.toString().compareTo(a.available.toString()),
-        );
-        break;
-      // Rating-Sortierung würde hier implementiert werden
+  Future<CursorPage<Item>> _fetchPage(String? cursor) {
+    return ApiService.getItems(
+      location: widget.selectedLocation,
+      available: _showOnlyAvailable ? true : null,
+      searchQuery: _searchController.text.trim(),
+      gender: _selectedGender,
+      category: _selectedCategory,
+      subcategory: _selectedSubcategory,
+      cursor: cursor,
+    );
+  }
+
+  void _onScroll() {
+    if (_scrollController.position.extentAfter < 500) {
+      _loadMore();
     }
   }
 
+  // Nicht bei jedem Tastendruck eine Anfrage schicken
+  void _onSearchChanged() {
+    _searchDebounce?.cancel();
+    _searchDebounce = Timer(Duration(milliseconds: 300), _filterItems);
+  }
+
+  void _filterItems() {
+    _loadItems();
+  }
+
   void _clearAllFilters() {
     setState(() {
       _searchController.clear();
@@ -368,9 +372,8 @@ class _HomePageState extends State<HomePage> {
   }
 
   Widget _buildSortAndStatsBar() {
-    final availableCount =
-        _filteredItems.where((item) => item.available).length;
-    final totalCount = _filteredItems.length;
+    final availableCount = _items.where((item) => item.available).length;
+    final totalCount = _items.length;
 
     return Container(
       padding: EdgeInsets.symmetric(horizontal: 24, vertical: 8),
@@ -378,7 +381,7 @@ class _HomePageState extends State<HomePage> {
         mainAxisAlignment: MainAxisAlignment.spaceBetween,
         children: [
           Text(
-            '$totalCount Items ($availableCount verfügbar)',
+            '$totalCount${_nextCursor != null ? '+' : ''} Items ($availableCount verfügbar)',
             style: TextStyle(color: Colors.grey, fontSize: 14),
           ),
           // Sortier-Dropdown könnte hier hinzugefügt werden
@@ -401,14 +404,20 @@ class _HomePageState extends State<HomePage> {
                   ],
                 ),
               )
-              : _filteredItems.isEmpty
+              : _items.isEmpty
               ? _buildEmptyState()
               : ListView.builder(
                 controller: _scrollController,
                 padding: EdgeInsets.all(24),
-                itemCount: _filteredItems.length,
+                itemCount: _items.length + (_nextCursor != null ? 1 : 0),
                 itemBuilder: (context, index) {
-                  return _buildItemCard(_filteredItems[index]);
+                  if (index == _items.length) {
+                    return Padding(
+                      padding: EdgeInsets.all(16),
+                      child: CupertinoActivityIndicator(),
+                    );
+                  }
+                  return _buildItemCard(_items[index]);
                 },
               ),
     );
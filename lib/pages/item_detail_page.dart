@@ -2,6 +2,7 @@ import 'package:flutter/material.dart';
 import 'package:flutter/cupertino.dart';
 import 'package:kreisel_frontend/models/item_model.dart';
 import 'package:kreisel_frontend/models/review_model.dart';
+import 'package:kreisel_frontend/models/cursor_page.dart';
 import 'package:kreisel_frontend/services/api_service.dart';
 import 'package:kreisel_frontend/services/review_api_service.dart';
 import 'package:kreisel_frontend/widgets/rent_item_dialog.dart';
@@ -19,6 +20,8 @@ class ItemDetailPage extends StatefulWidget {
 
 class _ItemDetailPageState extends State<ItemDetailPage> {
   List<Review> reviews = [];
+  String? nextReviewCursor;
+  bool isLoadingMoreReviews = false;
   Map<String, dynamic> ratingStats = {
     'averageRating': 0.0,
     'totalReviews': 0,
@@ -39,8 +42,10 @@ class _ItemDetailPageState extends State<ItemDetailPage> {
         ReviewApiService.getItemRatingStats(widget.item.id),
       ]);
 
+      final page = reviewsData as CursorPage<Review>;
       setState(() {
-        reviews = reviewsData as List<Review>;
+        reviews = page.items;
+        nextReviewCursor = page.nextCursor;
         ratingStats = statsData as Map<String, dynamic>;
         isLoadingReviews = false;
       });
@@ -50,6 +55,27 @@ class _ItemDetailPageState extends State<ItemDetailPage> {
     }
   }
 
+  // Weitere Reviews erst auf Anfrage laden
+  Future<void> _loadMoreReviews() async {
+    if (isLoadingMoreReviews || nextReviewCursor == null) return;
+
+    setState(() => isLoadingMoreReviews = true);
+    try {
+      final page = await ReviewApiService.getItemReviews(
+        widget.item.id,
+        cursor: nextReviewCursor,
+      );
+      setState(() {
+        reviews.addAll(page.items);
+        nextReviewCursor = page.nextCursor;
+        isLoadingMoreReviews = false;
+      });
+    } catch (e) {
+      setState(() => isLoadingMoreReviews = false);
+      print('Fehler beim Laden der Bewertungen: $e');
+    }
+  }
+
   @override
   Widget build(BuildContext context) {
     return Scaffold(
@@ -274,7 +300,7 @@ class _ItemDetailPageState extends State<ItemDetailPage> {
               child: Container(
                 margin: EdgeInsets.symmetric(horizontal: 24, vertical: 16),
                 child: Text(
-                  'Bewertungen (${reviews.length})',
+                  'Bewertungen (${ratingStats['totalReviews']})',
                   style: TextStyle(
                     fontSize: 20,
                     fontWeight: FontWeight.bold,
@@ -314,6 +340,25 @@ class _ItemDetailPageState extends State<ItemDetailPage> {
                 }, childCount: reviews.length),
               ),
 
+            if (nextReviewCursor != null)
+              SliverToBoxAdapter(
+                child: Center(
+                  child:
+                      isLoadingMoreReviews
+                          ? Padding(
+                            padding: EdgeInsets.all(16),
+                            child: CupertinoActivityIndicator(),
+                          )
+                          : CupertinoButton(
+                            onPressed: _loadMoreReviews,
+                            child: Text(
+                              'Weitere Bewertungen laden',
+                              style: TextStyle(color: Color(0xFF007AFF)),
+                            ),
+                          ),
+                ),
+              ),
+
             // Bottom Spacing
             SliverToBoxAdapter(child: SizedBox(height: 32)),
           ],
@@ -4,7 +4,8 @@ import 'package:flutter/material.dart';
 import 'package:shared_preferences/shared_preferences.dart';
 import 'package:kreisel_frontend/models/user_model.dart';
 import 'package:kreisel_frontend/models/item_model.dart';
-import 'package:kreisel_frontend/models/rental_model.dart';
+import 'package:kreisel_frontend/models/rental_model.dart';
+import 'package:kreisel_frontend/models/cursor_page.dart';
 
 class ApiService {
   static const String baseUrl = 'http://localhost:8080/api';
@@ -119,8 +120,8 @@ class ApiService {
     }
   }
 
-  // Get items with filters
-  static Future<List<Item>> getItems({
+  // Get one page of items with filters (cursor = nextCursor der vorigen Seite)
+  static Future<CursorPage<Item>> getItems({
     required String location,
     bool? available,
     String? searchQuery,
@@ -128,6 +129,8 @@ class ApiService {
     String? category,
     String? subcategory,
     String? size,
+    String? cursor,
+    int limit = 50,
   }) async {
     var params = {'location': location};
     if (available != null) params['available'] = available.toString();
@@ -138,12 +141,14 @@ class ApiService {
     if (subcategory != null) params['subcategory'] = subcategory;
     if (size != null) params['size'] = size;
 
+    params['limit'] = limit.toString();
+    if (cursor != null) params['cursor'] = cursor;
+
     final uri = Uri.parse('$baseUrl/items').replace(queryParameters: params);
     final response = await http.get(uri, headers: _getHeaders());
 
     if (response.statusCode == 200) {
-      List<dynamic> jsonList = jsonDecode(response.body);
-      return jsonList.map((json) => Item.fromJson(json)).toList();
+      return CursorPage.fromJson(jsonDecode(response.body), Item.fromJson);
     } else {
       throw Exception('Fehler beim Laden der Items');
     }
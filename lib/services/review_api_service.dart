@@ -1,17 +1,25 @@
 import 'package:http/http.dart' as http;
 import 'dart:convert';
 import 'package:kreisel_frontend/models/review_model.dart';
+import 'package:kreisel_frontend/models/cursor_page.dart';
 
 class ReviewApiService {
   static const String baseUrl = 'http://localhost:8080/api';
 
-  // Alle Reviews für ein Item abrufen
-  static Future<List<Review>> getItemReviews(int itemId) async {
-    final response = await http.get(Uri.parse('$baseUrl/reviews/item/$itemId'));
+  // Eine Seite Reviews für ein Item abrufen (neueste zuerst, cursor = nextCursor der vorigen Seite)
+  static Future<CursorPage<Review>> getItemReviews(
+    int itemId, {
+    String? cursor,
+    int limit = 20,
+  }) async {
+    final params = <String, String>{'limit': limit.toString()};
+    if (cursor != null) params['cursor'] = cursor;
+    final uri = Uri.parse('$baseUrl/reviews/item/$itemId')
+        .replace(queryParameters: params);
+    final response = await http.get(uri);
 
     if (response.statusCode == 200) {
-      List<dynamic> jsonList = jsonDecode(response.body);
-      return jsonList.map((json) => Review.fromJson(json)).toList();
+      return CursorPage.fromJson(jsonDecode(response.body), Review.fromJson);
     } else {
       throw Exception('Fehler beim Laden der Bewertungen');
     }
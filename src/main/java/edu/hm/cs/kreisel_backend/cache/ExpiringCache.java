@@ -0,0 +1,245 @@
+package edu.hm.cs.kreisel_backend.cache;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Kleiner In-Process-Cache mit fester Maximalgröße (LRU) und Ablaufzeit pro Eintrag.
+ * Geladene Werte werden nur übernommen, wenn ihr Schlüssel während des Ladens nicht invalidiert
+ * wurde, damit ein paralleles Update nicht von einem veralteten Ladevorgang überschrieben wird.
+ * Dafür wird pro Schlüssel, der gerade geladen wird, die letzte Invalidierung vermerkt;
+ * {@link #evictIf} und {@link #clear} gelten für alle laufenden Ladevorgänge.
+ */
+public class ExpiringCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<K, Loading> loading = new HashMap<>();
+    private long sequence = 0;
+    private long clearedAt = 0;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || entry.isExpired(System.nanoTime())) {
+                if (entry != null) {
+                    entries.remove(key);
+                }
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Liefert den gecachten Wert oder lädt ihn über {@code loader}.
+     * {@code null} vom Loader wird nicht gecacht.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadStartedAt;
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !entry.isExpired(System.nanoTime())) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            loadStartedAt = sequence;
+            startLoading(key);
+        } finally {
+            lock.unlock();
+        }
+
+        // Laden außerhalb des Locks, damit langsame Abfragen andere Leser nicht blockieren
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            lock.lock();
+            try {
+                if (finishLoading(key, loadStartedAt) && value != null) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Wie {@link #get(Object, Function)} für mehrere Schlüssel: alle fehlenden Werte werden
+     * mit einem einzigen Aufruf von {@code loader} geladen. Schlüssel ohne Wert fehlen im Ergebnis.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        long loadStartedAt;
+        Map<K, V> result = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            loadStartedAt = sequence;
+            for (K key : keys) {
+                Entry<V> entry = entries.get(key);
+                if (entry == null || entry.isExpired(now)) {
+                    if (entry != null) {
+                        entries.remove(key);
+                    }
+                    misses.increment();
+                    missing.add(key);
+                    startLoading(key);
+                } else {
+                    hits.increment();
+                    result.put(key, entry.value());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<K, V> loaded = Map.of();
+        try {
+            loaded = loader.apply(missing);
+            result.putAll(loaded);
+        } finally {
+            lock.lock();
+            try {
+                long expiresAt = System.nanoTime() + ttlNanos;
+                for (K key : missing) {
+                    V value = loaded.get(key);
+                    if (finishLoading(key, loadStartedAt) && value != null) {
+                        entries.put(key, new Entry<>(value, expiresAt));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    // Zählt wie eine Invalidierung: ein Ladevorgang, der vor dem put begonnen hat, hat
+    // womöglich noch den alten Stand gelesen und darf den neuen Wert nicht überschreiben
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            invalidate(key);
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(K key) {
+        lock.lock();
+        try {
+            invalidate(key);
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictIf(BiPredicate<? super K, ? super V> predicate) {
+        lock.lock();
+        try {
+            clearedAt = ++sequence;
+            entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue().value()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            clearedAt = ++sequence;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    // Die folgenden Methoden nur unter dem Lock aufrufen
+
+    private void startLoading(K key) {
+        loading.computeIfAbsent(key, k -> new Loading()).count++;
+    }
+
+    // true, wenn der Schlüssel seit Beginn des Ladens nicht invalidiert wurde
+    private boolean finishLoading(K key, long loadStartedAt) {
+        Loading state = loading.get(key);
+        boolean valid = state.invalidatedAt <= loadStartedAt && clearedAt <= loadStartedAt;
+        if (--state.count == 0) {
+            loading.remove(key);
+        }
+        return valid;
+    }
+
+    private void invalidate(K key) {
+        Loading state = loading.get(key);
+        if (state != null) {
+            state.invalidatedAt = ++sequence;
+        }
+    }
+
+    // Laufende Ladevorgänge eines Schlüssels und seine letzte Invalidierung während des Ladens
+    private static final class Loading {
+        private int count;
+        private long invalidatedAt;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
@@ -45,6 +45,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Admin-only endpoints
                         .requestMatchers("/api/users").hasRole("ADMIN")
                         .requestMatchers("/api/users/{id}").hasRole("ADMIN")
@@ -59,6 +61,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/items").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/items/{id}").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/items/{id}").hasRole("ADMIN")
+                        // Sammel-Operationen am Schalter (vor den {rentalId}-Pfaden, sonst greift deren Regel)
+                        .requestMatchers("/api/rentals/bulk/**").hasRole("ADMIN")
                         // User can access their own data
                         .requestMatchers("/api/rentals/user/**").authenticated()
                         .requestMatchers("/api/rentals/rent").authenticated()
@@ -66,6 +70,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/rentals/{rentalId}/return").authenticated()
                         // Admin can access all rentals
                         .requestMatchers("/api/rentals").hasRole("ADMIN")
+                        .requestMatchers("/api/rentals/overdue").hasRole("ADMIN")
                         .requestMatchers("/api/rentals/user/{userId}/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
@@ -83,6 +88,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Flutter Web muss das ETag lesen können, um es als If-None-Match zurückzuschicken
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
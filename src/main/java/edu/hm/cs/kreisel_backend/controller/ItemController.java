@@ -1,15 +1,29 @@
 package edu.hm.cs.kreisel_backend.controller;
 
+import edu.hm.cs.kreisel_backend.dto.CacheStats;
+import edu.hm.cs.kreisel_backend.dto.CursorPage;
+import edu.hm.cs.kreisel_backend.dto.ItemFacetCounts;
+import edu.hm.cs.kreisel_backend.dto.ItemImportResult;
 import edu.hm.cs.kreisel_backend.model.Item;
 import edu.hm.cs.kreisel_backend.model.Item.*;
 import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.security.KreiselUserDetails;
 import edu.hm.cs.kreisel_backend.security.SecurityUtils;
+import edu.hm.cs.kreisel_backend.service.AvailabilityBroadcaster;
+import edu.hm.cs.kreisel_backend.service.CatalogVersions;
+import edu.hm.cs.kreisel_backend.service.ItemBulkService;
 import edu.hm.cs.kreisel_backend.service.ItemService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/items")
@@ -17,40 +31,148 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemBulkService itemBulkService;
+    private final CatalogVersions catalogVersions;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
     private final SecurityUtils securityUtils;
 
     //nur der User soll diese Methode haben um nach seinen Wünschen zu filtern
     // Haupt-GET-Endpunkt mit allen Filtern
     @GetMapping
-    public ResponseEntity<List<Item>> getFilteredItems(
+    public ResponseEntity<CursorPage<Item>> getFilteredItems(
             @RequestParam Location location,                    // Pflicht: Standort
             @RequestParam(required = false) Boolean available,   // Optional: Verfügbarkeit
             @RequestParam(required = false) String searchQuery,  // Optional: Textsuche
             @RequestParam(required = false) Gender gender,       // Optional: Gender
             @RequestParam(required = false) Category category,   // Optional: Kategorie
             @RequestParam(required = false) Subcategory subcategory, // Optional: Unterkategorie
-            @RequestParam(required = false) String size          // Optional: Größe
+            @RequestParam(required = false) String size,         // Optional: Größe
+            @RequestParam(required = false) Long cursor,         // Optional: nextCursor der vorigen Seite
+            @RequestParam(required = false) Integer limit,       // Optional: Seitengröße (Standard 50, max. 200)
+            WebRequest request
     ) {
-        return ResponseEntity.ok(itemService.filterItems(
+        // Unveränderter Standort: 304 ohne Abfrage
+        String etag = catalogVersions.catalogETag(location);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(itemService.filterItems(
                 location,
                 available,
                 searchQuery,
                 gender,
                 category,
                 subcategory,
-                size
+                size,
+                cursor,
+                limit
         ));
     }
 
+    // Live-Verfügbarkeit eines Standorts als Server-Sent Events: Event "availability" mit {itemId, available}
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(@RequestParam Location location) {
+        SseEmitter emitter = availabilityBroadcaster.subscribe(location);
+        if (emitter == null) {
+            return ResponseEntity.status(503).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    // Anzahl Items pro Kategorie, Unterkategorie, Gender, Zustand, Größe und Verfügbarkeit
+    // für die Filter-Sidebar; akzeptiert dieselben Filter wie der Haupt-GET-Endpunkt
+    @GetMapping("/facets")
+    public ResponseEntity<ItemFacetCounts> getFacetCounts(
+            @RequestParam Location location,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String searchQuery,
+            @RequestParam(required = false) Gender gender,
+            @RequestParam(required = false) Category category,
+            @RequestParam(required = false) Subcategory subcategory,
+            @RequestParam(required = false) Zustand zustand,
+            @RequestParam(required = false) String size,
+            WebRequest request
+    ) {
+        String etag = catalogVersions.catalogETag(location);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ItemFacetCounts counts = itemService.getFacetCounts(
+                location, available, searchQuery, gender, category, subcategory, zustand, size);
+        if (counts == null) {
+            // Indizes werden beim Start noch aufgebaut
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(counts);
+    }
+
+    // nur Admin: Massenimport als CSV (Content-Type text/csv, mit Kopfzeile) oder NDJSON (application/x-ndjson)
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ItemImportResult> importItems(HttpServletRequest request) throws IOException {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
+        if (currentUser == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!currentUser.getRole().equals(User.Role.ADMIN)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        ItemBulkService.Format format = request.getContentType().startsWith("text/csv")
+                ? ItemBulkService.Format.CSV : ItemBulkService.Format.NDJSON;
+        return ResponseEntity.ok(itemBulkService.importItems(request.getInputStream(), format));
+    }
+
+    // nur Admin: kompletter Katalog als CSV oder NDJSON (?format=NDJSON), wird direkt gestreamt
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(defaultValue = "CSV") ItemBulkService.Format format) {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
+        if (currentUser == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!currentUser.getRole().equals(User.Role.ADMIN)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        String fileName = format == ItemBulkService.Format.CSV ? "items.csv" : "items.ndjson";
+        MediaType mediaType = format == ItemBulkService.Format.CSV
+                ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(output -> itemBulkService.exportItems(output, format));
+    }
+
+    // nur Admin: Trefferquote des Item-Caches
+    @GetMapping("/cache-stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
+        if (currentUser == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!currentUser.getRole().equals(User.Role.ADMIN)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return ResponseEntity.ok(itemService.getCacheStats());
+    }
+
     //hier was sinnvolles machen
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        return ResponseEntity.ok(itemService.getItemById(id));
+    public ResponseEntity<Item> getItemById(@PathVariable Long id, WebRequest request) {
+        String etag = catalogVersions.itemETag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(itemService.getItemById(id));
     }
 //nur der admin soll das machen dürfen
     @PostMapping
     public ResponseEntity<Item> createItem(@RequestBody Item item) {
-        User currentUser = securityUtils.getCurrentUser();
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -64,7 +186,7 @@ public class ItemController {
 //nur der admin soll das machen dürfen
     @PutMapping("/{id}")
     public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item item) {
-        User currentUser = securityUtils.getCurrentUser();
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -78,7 +200,7 @@ public class ItemController {
 // nur der Admin soll das machen dürfen
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        User currentUser = securityUtils.getCurrentUser();
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
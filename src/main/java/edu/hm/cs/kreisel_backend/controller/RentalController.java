@@ -1,10 +1,16 @@
 package edu.hm.cs.kreisel_backend.controller;
 
+import edu.hm.cs.kreisel_backend.dto.BulkRentalResult;
+import edu.hm.cs.kreisel_backend.dto.PageResponse;
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
+import edu.hm.cs.kreisel_backend.model.Item;
 import edu.hm.cs.kreisel_backend.model.Rental;
 import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.security.KreiselUserDetails;
 import edu.hm.cs.kreisel_backend.security.SecurityUtils;
 import edu.hm.cs.kreisel_backend.service.RentalService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
@@ -20,14 +26,40 @@ public class RentalController {
     private final RentalService rentalService;
     private final SecurityUtils securityUtils;
 
+    // nur Admin: alle Ausleihen seitenweise, z. B. ?status=OVERDUE&location=PASING&from=2025-01-01&sort=endDate
     @GetMapping
-    public ResponseEntity<List<Rental>> getAllRentals() {
-        return ResponseEntity.ok(rentalService.getAllRentals());
+    public ResponseEntity<PageResponse<RentalResponse>> getAllRentals(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String status,       // ACTIVE, OVERDUE oder RETURNED
+            @RequestParam(required = false) Item.Location location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(rentalService.getAllRentals(page, size, sort, status, location, from, to));
+    }
+
+    // nur Admin: alle überfälligen Ausleihen, älteste zuerst
+    @GetMapping("/overdue")
+    public ResponseEntity<List<RentalResponse>> getOverdueRentals() {
+        return ResponseEntity.ok(rentalService.getOverdueRentals());
+    }
+
+    // nur Admin: mehrere Rentals auf einmal zurückgeben, Body {"rentalIds": [1, 2, 3]}
+    @PostMapping("/bulk/return")
+    public ResponseEntity<List<BulkRentalResult>> returnRentals(@RequestBody Map<String, List<Long>> request) {
+        return ResponseEntity.ok(rentalService.returnRentals(request.get("rentalIds")));
+    }
+
+    // nur Admin: mehrere Rentals auf einmal verlängern
+    @PostMapping("/bulk/extend")
+    public ResponseEntity<List<BulkRentalResult>> extendRentals(@RequestBody Map<String, List<Long>> request) {
+        return ResponseEntity.ok(rentalService.extendRentals(request.get("rentalIds")));
     }
 
     @GetMapping("/user")
-    public ResponseEntity<List<Rental>> getCurrentUserRentals() {
-        User currentUser = securityUtils.getCurrentUser();
+    public ResponseEntity<List<RentalResponse>> getCurrentUserRentals() {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -35,8 +67,8 @@ public class RentalController {
     }
 
     @GetMapping("/user/active")
-    public ResponseEntity<List<Rental>> getCurrentUserActiveRentals() {
-        User currentUser = securityUtils.getCurrentUser();
+    public ResponseEntity<List<RentalResponse>> getCurrentUserActiveRentals() {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -44,8 +76,8 @@ public class RentalController {
     }
 
     @GetMapping("/user/history")
-    public ResponseEntity<List<Rental>> getCurrentUserHistoricalRentals() {
-        User currentUser = securityUtils.getCurrentUser();
+    public ResponseEntity<List<RentalResponse>> getCurrentUserHistoricalRentals() {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -53,42 +85,42 @@ public class RentalController {
     }
 
     @PostMapping("/rent")
-    public ResponseEntity<Rental> rentItem(@RequestBody Map<String, String> request) {
-        User currentUser = securityUtils.getCurrentUser();
+    public ResponseEntity<RentalResponse> rentItem(@RequestBody Map<String, String> request) {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
         Long itemId = Long.valueOf(request.get("itemId"));
         LocalDate endDate = LocalDate.parse(request.get("endDate"));
-        return ResponseEntity.ok(rentalService.rentItem(currentUser.getId(), itemId, endDate));
+        return ResponseEntity.ok(RentalResponse.from(rentalService.rentItem(currentUser.getId(), itemId, endDate), LocalDate.now()));
     }
 
     // For backward compatibility
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Rental>> getRentalsByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<RentalResponse>> getRentalsByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(rentalService.getRentalsByUser(userId));
     }
 
     @GetMapping("/user/{userId}/active")
-    public ResponseEntity<List<Rental>> getActiveRentalsByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<RentalResponse>> getActiveRentalsByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(rentalService.getActiveRentalsByUser(userId));
     }
 
     @GetMapping("/user/{userId}/history")
-    public ResponseEntity<List<Rental>> getHistoricalRentalsByUser(@PathVariable Long userId) {
+    public ResponseEntity<List<RentalResponse>> getHistoricalRentalsByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(rentalService.getHistoricalRentalsByUser(userId));
     }
 
     @PostMapping("/user/{userId}/rent")
-    public ResponseEntity<Rental> rentItem(@PathVariable Long userId, @RequestBody Map<String, String> request) {
+    public ResponseEntity<RentalResponse> rentItem(@PathVariable Long userId, @RequestBody Map<String, String> request) {
         Long itemId = Long.valueOf(request.get("itemId"));
         LocalDate endDate = LocalDate.parse(request.get("endDate"));
-        return ResponseEntity.ok(rentalService.rentItem(userId, itemId, endDate));
+        return ResponseEntity.ok(RentalResponse.from(rentalService.rentItem(userId, itemId, endDate), LocalDate.now()));
     }
 
     @PostMapping("/{rentalId}/extend")
-    public ResponseEntity<Rental> extendRental(@PathVariable Long rentalId) {
-        User currentUser = securityUtils.getCurrentUser();
+    public ResponseEntity<RentalResponse> extendRental(@PathVariable Long rentalId) {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -103,12 +135,12 @@ public class RentalController {
             return ResponseEntity.status(403).build();
         }
 
-        return ResponseEntity.ok(rentalService.extendRental(rentalId));
+        return ResponseEntity.ok(RentalResponse.from(rentalService.extendRental(rentalId), LocalDate.now()));
     }
 
     @PostMapping("/{rentalId}/return")
-    public ResponseEntity<Rental> returnRental(@PathVariable Long rentalId) {
-        User currentUser = securityUtils.getCurrentUser();
+    public ResponseEntity<RentalResponse> returnRental(@PathVariable Long rentalId) {
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -123,6 +155,6 @@ public class RentalController {
             return ResponseEntity.status(403).build();
         }
 
-        return ResponseEntity.ok(rentalService.returnRental(rentalId));
+        return ResponseEntity.ok(RentalResponse.from(rentalService.returnRental(rentalId), LocalDate.now()));
     }
 }
@@ -1,20 +1,26 @@
 package edu.hm.cs.kreisel_backend.controller;
 
+import edu.hm.cs.kreisel_backend.dto.CursorPage;
 import edu.hm.cs.kreisel_backend.dto.ItemRatingStats;
 import edu.hm.cs.kreisel_backend.dto.ReviewRequest;
 import edu.hm.cs.kreisel_backend.dto.ReviewResponse;
+import edu.hm.cs.kreisel_backend.model.Item;
 import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.service.CatalogVersions;
 import edu.hm.cs.kreisel_backend.service.ReviewService;
 import edu.hm.cs.kreisel_backend.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reviews")
@@ -23,6 +29,7 @@ public class ReviewController {
 
     private final ReviewService reviewService;
     private final UserService userService;
+    private final CatalogVersions catalogVersions;
 
     // Review für ein Rental erstellen
     @PostMapping("/rental/{rentalId}")
@@ -50,16 +57,22 @@ public class ReviewController {
         return ResponseEntity.ok("Review erfolgreich gelöscht");
     }
 
-    // Alle Reviews für ein Item
+    // Reviews für ein Item, seitenweise (neueste zuerst)
     @GetMapping("/item/{itemId}")
-    public ResponseEntity<List<ReviewResponse>> getReviewsByItem(@PathVariable Long itemId) {
-        return ResponseEntity.ok(reviewService.getReviewsByItem(itemId));
+    public ResponseEntity<CursorPage<ReviewResponse>> getReviewsByItem(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) String cursor,      // Optional: nextCursor der vorigen Seite
+            @RequestParam(required = false) Integer limit) {    // Optional: Seitengröße (Standard 20, max. 100)
+        return ResponseEntity.ok(reviewService.getReviewsByItem(itemId, cursor, limit));
     }
 
-    // Alle Reviews von einem User
+    // Reviews von einem User, seitenweise (neueste zuerst)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ReviewResponse>> getReviewsByUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(reviewService.getReviewsByUser(userId));
+    public ResponseEntity<CursorPage<ReviewResponse>> getReviewsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(reviewService.getReviewsByUser(userId, cursor, limit));
     }
 
     // Review für ein bestimmtes Rental abrufen
@@ -70,15 +83,33 @@ public class ReviewController {
 
     // Rating-Statistiken für ein Item
     @GetMapping("/item/{itemId}/stats")
-    public ResponseEntity<ItemRatingStats> getItemRatingStats(@PathVariable Long itemId) {
-        return ResponseEntity.ok(reviewService.getItemRatingStats(itemId));
+    public ResponseEntity<ItemRatingStats> getItemRatingStats(@PathVariable Long itemId, WebRequest request) {
+        String etag = catalogVersions.ratingStatsETag(itemId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(reviewService.getItemRatingStats(itemId));
+    }
+
+    // Rating-Statistiken für mehrere Items auf einmal (z. B. ?itemIds=1,2,3)
+    @GetMapping("/items/stats")
+    public ResponseEntity<Map<Long, ItemRatingStats>> getItemRatingStats(@RequestParam List<Long> itemIds) {
+        return ResponseEntity.ok(reviewService.getItemRatingStats(itemIds));
     }
 
-    // Top bewertete Items
+    // Top bewertete Items (z. B. ?k=10&location=PASING&category=SCHUHE&bayesian=true)
     @GetMapping("/top-items")
     public ResponseEntity<List<Long>> getTopRatedItems(
-            @RequestParam(defaultValue = "3") Integer minReviews) {
-        return ResponseEntity.ok(reviewService.getTopRatedItemIds(minReviews));
+            @RequestParam(defaultValue = "10") Integer k,
+            @RequestParam(required = false) Item.Location location,
+            @RequestParam(required = false) Item.Category category,
+            @RequestParam(defaultValue = "3") Integer minReviews,
+            @RequestParam(defaultValue = "false") boolean bayesian) {
+        List<Long> itemIds = reviewService.getTopRatedItemIds(k, location, category, minReviews, bayesian);
+        if (itemIds == null) {
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok(itemIds);
     }
 
     // Prüfen ob User ein Rental bewerten kann
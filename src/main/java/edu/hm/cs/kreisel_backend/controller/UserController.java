@@ -1,7 +1,10 @@
 package edu.hm.cs.kreisel_backend.controller;
 
-import edu.hm.cs.kreisel_backend.model.Rental;
+import edu.hm.cs.kreisel_backend.dto.PageResponse;
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
+import edu.hm.cs.kreisel_backend.dto.UserResponse;
 import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.security.KreiselUserDetails;
 import edu.hm.cs.kreisel_backend.security.SecurityUtils;
 import edu.hm.cs.kreisel_backend.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -19,8 +22,13 @@ public class UserController {
     private final SecurityUtils securityUtils;
 //nur der admin soll diese Methode haben um alle user zu suchen
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public PageResponse<UserResponse> getAllUsers(
+            @RequestParam(required = false) Integer page,        // 0-basiert
+            @RequestParam(required = false) Integer size,        // Standard 20, max. 100
+            @RequestParam(required = false) String sort,         // z. B. fullName,desc
+            @RequestParam(required = false) User.Role role,
+            @RequestParam(required = false) String search) {     // Teil von Name oder E-Mail
+        return userService.getAllUsers(page, size, sort, role, search);
     }
 //wieder nur der admin soll diese Methode haben um nach den Usern zu schauen
     @GetMapping("/{id}")
@@ -34,7 +42,7 @@ public class UserController {
     }
 //nur der admin soll diese Methode haben um nach den rentals der User zu schauen, der User kann seine eigenen rentals sehen
     @GetMapping("/{id}/rentals")
-    public List<Rental> getUserRentals(@PathVariable Long id) {
+    public List<RentalResponse> getUserRentals(@PathVariable Long id) {
         return userService.getRentalsByUserId(id);
     }
 //nur admin
@@ -66,7 +74,7 @@ public class UserController {
     // User can edit their own account
     @PutMapping("/me")
     public ResponseEntity<User> updateCurrentUser(@RequestBody User user) {
-        User currentUser = securityUtils.getCurrentUser();
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
@@ -80,7 +88,7 @@ public class UserController {
     // User can delete their own account
     @DeleteMapping("/me")
     public ResponseEntity<Void> deleteCurrentUser() {
-        User currentUser = securityUtils.getCurrentUser();
+        KreiselUserDetails currentUser = securityUtils.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
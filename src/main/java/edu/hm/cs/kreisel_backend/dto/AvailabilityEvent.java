@@ -0,0 +1,5 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+// Delta im Verfügbarkeits-Stream (SSE-Event "availability")
+public record AvailabilityEvent(Long itemId, boolean available) {
+}
@@ -0,0 +1,26 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Ergebnis einer Sammel-Rückgabe bzw. -Verlängerung für eine einzelne Rental-id
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRentalResult {
+    private Long rentalId;
+    private boolean success;
+    private String message; // Fehlergrund, null bei Erfolg
+    private LocalDate endDate; // neues Enddatum bei erfolgreicher Verlängerung
+
+    public static BulkRentalResult ok(Long rentalId, LocalDate endDate) {
+        return new BulkRentalResult(rentalId, true, null, endDate);
+    }
+
+    public static BulkRentalResult failed(Long rentalId, String message) {
+        return new BulkRentalResult(rentalId, false, message, null);
+    }
+}
@@ -0,0 +1,13 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheStats {
+    private int size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate; // 0.0 - 1.0
+}
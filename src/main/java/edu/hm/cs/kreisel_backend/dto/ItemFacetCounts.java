@@ -0,0 +1,20 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+import edu.hm.cs.kreisel_backend.model.Item.*;
+import lombok.Data;
+
+import java.util.Map;
+
+// Jede Facette zählt mit allen übrigen Filtern, aber ohne ihren eigenen,
+// damit die Sidebar auch die Alternativen zur aktuellen Auswahl anzeigen kann.
+@Data
+public class ItemFacetCounts {
+    private int total;
+    private int available;
+    private int unavailable;
+    private Map<Gender, Integer> genders;
+    private Map<Category, Integer> categories;
+    private Map<Subcategory, Integer> subcategories;
+    private Map<Zustand, Integer> zustand;
+    private Map<String, Integer> sizes;
+}
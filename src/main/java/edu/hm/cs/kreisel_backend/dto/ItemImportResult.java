@@ -0,0 +1,13 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ItemImportResult {
+    private int imported;
+    private int rejected;
+    private List<String> errors = new ArrayList<>(); // "Zeile 12: ..." - nur die ersten Fehler
+}
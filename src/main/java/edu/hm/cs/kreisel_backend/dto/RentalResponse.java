@@ -0,0 +1,49 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+import edu.hm.cs.kreisel_backend.model.Rental;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class RentalResponse {
+    private Long id;
+    private Long itemId;
+    private String itemName;
+    private String itemBrand;
+    private String itemSize;
+    private Long userId;
+    private LocalDate rentalDate;
+    private LocalDate endDate;
+    private LocalDate returnDate;
+    private boolean extended;
+    private String status; // ACTIVE, OVERDUE, RETURNED
+
+    // Wird auch direkt in JPQL verwendet (SELECT new ...), siehe RentalRepository
+    public RentalResponse(Long id, Long itemId, String itemName, String itemBrand, String itemSize, Long userId,
+                          LocalDate rentalDate, LocalDate endDate, LocalDate returnDate, boolean extended,
+                          String status) {
+        this.id = id;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.itemBrand = itemBrand;
+        this.itemSize = itemSize;
+        this.userId = userId;
+        this.rentalDate = rentalDate;
+        this.endDate = endDate;
+        this.returnDate = returnDate;
+        this.extended = extended;
+        this.status = status;
+    }
+
+    // Für einzelne, bereits geladene Rentals (Ausleihe, Verlängerung, Rückgabe)
+    public static RentalResponse from(Rental rental, LocalDate today) {
+        String status = rental.getReturnDate() != null ? "RETURNED"
+                : rental.getEndDate().isBefore(today) ? "OVERDUE" : "ACTIVE";
+        return new RentalResponse(rental.getId(), rental.getItem().getId(), rental.getItem().getName(),
+                rental.getItem().getBrand(), rental.getItem().getSize(), rental.getUser().getId(),
+                rental.getRentalDate(), rental.getEndDate(), rental.getReturnDate(), rental.isExtended(), status);
+    }
+}
@@ -3,11 +3,20 @@ package edu.hm.cs.kreisel_backend.dto;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 
 @Data
+@NoArgsConstructor
 public class ReviewResponse {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private Long id;
     private Long userId;
     private String userFullName;
@@ -18,4 +27,25 @@ public class ReviewResponse {
     private String comment;
     private String createdAt;
     private String updatedAt;
+
+    // Ungerundeter Zeitstempel für den Keyset-Cursor (createdAt, id), nicht Teil der JSON-Antwort
+    @JsonIgnore
+    private LocalDateTime createdAtTimestamp;
+
+    // Wird auch direkt in JPQL verwendet (SELECT new ...), siehe ReviewRepository
+    public ReviewResponse(Long id, Long userId, String userFullName, Long itemId, String itemName,
+                          Long rentalId, Integer rating, String comment,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userFullName = userFullName;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.rentalId = rentalId;
+        this.rating = rating;
+        this.comment = comment;
+        this.createdAt = createdAt.format(FORMATTER);
+        this.createdAtTimestamp = createdAt;
+        this.updatedAt = updatedAt != null ? updatedAt.format(FORMATTER) : null;
+    }
 }
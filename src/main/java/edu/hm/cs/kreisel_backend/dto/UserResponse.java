@@ -0,0 +1,17 @@
+package edu.hm.cs.kreisel_backend.dto;
+
+import edu.hm.cs.kreisel_backend.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Admin-Ansicht eines Users, ohne Passwort und ohne Rentals
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+    private Long id;
+    private String fullName;
+    private String email;
+    private User.Role role;
+}
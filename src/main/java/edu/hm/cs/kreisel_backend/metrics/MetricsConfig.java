@@ -0,0 +1,54 @@
+package edu.hm.cs.kreisel_backend.metrics;
+
+import edu.hm.cs.kreisel_backend.dto.CacheStats;
+import edu.hm.cs.kreisel_backend.security.PrincipalCache;
+import edu.hm.cs.kreisel_backend.service.AvailabilityBroadcaster;
+import edu.hm.cs.kreisel_backend.service.ItemCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // Als Instanz statt per Klassenname in den Properties, damit der Inspector ein Spring-Bean mit Registry ist
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(ItemCache itemCache, PrincipalCache principalCache) {
+        return registry -> {
+            bindCache(registry, "items", itemCache::stats);
+            bindCache(registry, "principals", principalCache::stats);
+        };
+    }
+
+    @Bean
+    public MeterBinder availabilityStreamMetrics(AvailabilityBroadcaster availabilityBroadcaster) {
+        return registry -> Gauge.builder("kreisel.availability.subscribers", availabilityBroadcaster,
+                        AvailabilityBroadcaster::getSubscriberCount)
+                .description("Offene SSE-Verbindungen für die Live-Verfügbarkeit")
+                .register(registry);
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, Supplier<CacheStats> stats) {
+        Gauge.builder("kreisel.cache.size", stats, s -> s.get().getSize())
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("kreisel.cache.hits", stats, s -> s.get().getHitCount())
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("kreisel.cache.misses", stats, s -> s.get().getMissCount())
+                .tag("cache", name)
+                .register(registry);
+    }
+}
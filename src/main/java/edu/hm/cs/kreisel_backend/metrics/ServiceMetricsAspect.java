@@ -0,0 +1,45 @@
+package edu.hm.cs.kreisel_backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Misst jede öffentliche Methode der fachlichen Services als {@code kreisel.service.calls}
+ * (Anzahl, Gesamt- und Maximaldauer je Klasse/Methode/Ergebnis). Interne Aufrufe innerhalb
+ * eines Services laufen nicht über den Proxy und werden daher nicht getrennt gemessen.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    @Around("execution(public * edu.hm.cs.kreisel_backend.service.ItemService.*(..))"
+            + " || execution(public * edu.hm.cs.kreisel_backend.service.RentalService.*(..))"
+            + " || execution(public * edu.hm.cs.kreisel_backend.service.ReviewService.*(..))"
+            + " || execution(public * edu.hm.cs.kreisel_backend.service.AuthService.*(..))"
+            + " || execution(public * edu.hm.cs.kreisel_backend.service.UserService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("kreisel.service.calls")
+                    .description("Aufrufe der Service-Methoden")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.hm.cs.kreisel_backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate-StatementInspector, der jedes vorbereitete SQL-Statement zählt: insgesamt als
+ * Counter und pro Request über {@link #begin()} / {@link #end()} (siehe {@link SqlStatementMetricsFilter}).
+ * Das SQL selbst wird unverändert durchgereicht. Statements über JdbcTemplate laufen nicht hier durch.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private final Counter total;
+
+    public SqlStatementCounter(MeterRegistry registry) {
+        this.total = Counter.builder("kreisel.sql.statements")
+                .description("Von Hibernate vorbereitete SQL-Statements")
+                .register(registry);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        total.increment();
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    int end() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,66 @@
+package edu.hm.cs.kreisel_backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Zählt die SQL-Statements pro Request und verbucht sie je Endpoint-Muster in
+ * {@code kreisel.http.sql.statements}. Läuft vor der Security-Filterkette, damit auch
+ * die User-Lookups des JWT-Filters mitgezählt werden. Ein steigendes Maximum bei gleicher
+ * Seitengröße ist das typische Zeichen für ein N+1-Problem.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry registry;
+
+    // Requests mit mehr Statements werden zusätzlich geloggt (0 = aus)
+    @Value("${kreisel.metrics.sql-statements.warn-threshold:0}")
+    private int warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = sqlStatementCounter.end();
+            // Muster statt konkreter URI, sonst entsteht pro Item-ID eine eigene Zeitreihe
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("kreisel.http.sql.statements")
+                    .description("SQL-Statements pro Request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(statements);
+            if (warnThreshold > 0 && statements > warnThreshold) {
+                log.warn("{} {} hat {} SQL-Statements ausgeführt", request.getMethod(), uri, statements);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package edu.hm.cs.kreisel_backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,13 +8,22 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
-@Table(name = "app_item")
+@Table(name = "app_item", indexes = {
+        @Index(name = "idx_item_location_available_category", columnList = "location, available, category, subcategory")
+})
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled Sequence: Hibernate reserviert 50 IDs pro Sequenzabruf und kann Inserts bündeln
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "app_item_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic Locking: parallele Ausleihen/Rückgaben desselben Items fallen auf
+    @Version
+    @JsonIgnore
+    private Long version;
+
     private String name;
     private String size; // z. B. L, XL, 120cm, 1.5L etc.
     private boolean available = true;
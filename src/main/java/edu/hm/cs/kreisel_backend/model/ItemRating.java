@@ -0,0 +1,70 @@
+package edu.hm.cs.kreisel_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Vorberechnete Rating-Statistik pro Item. Wird von ReviewService bei jedem
+ * Anlegen, Ändern und Löschen einer Review per Delta nachgeführt, damit Statistiken
+ * und Top-Listen nicht jedes Mal über alle Reviews aggregiert werden müssen.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "app_item_rating", indexes = {
+        @Index(name = "idx_item_rating_average", columnList = "average_rating, review_count")
+})
+public class ItemRating {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    private int reviewCount;
+    private long ratingSum;
+    private double averageRating;
+
+    @Column(name = "rating1_count")
+    private int rating1Count;
+
+    @Column(name = "rating2_count")
+    private int rating2Count;
+
+    @Column(name = "rating3_count")
+    private int rating3Count;
+
+    @Column(name = "rating4_count")
+    private int rating4Count;
+
+    @Column(name = "rating5_count")
+    private int rating5Count;
+
+    // Steigt mit jeder Änderung; damit erkennt TopRatedItemsIndex veraltete Stände aus afterCommit
+    private long revision;
+
+    public void addRating(int rating) {
+        applyDelta(rating, 1);
+    }
+
+    public void removeRating(int rating) {
+        applyDelta(rating, -1);
+    }
+
+    private void applyDelta(int rating, int delta) {
+        revision++;
+        reviewCount += delta;
+        ratingSum += (long) rating * delta;
+        switch (rating) {
+            case 1 -> rating1Count += delta;
+            case 2 -> rating2Count += delta;
+            case 3 -> rating3Count += delta;
+            case 4 -> rating4Count += delta;
+            case 5 -> rating5Count += delta;
+            default -> throw new IllegalArgumentException("Rating muss zwischen 1 und 5 liegen");
+        }
+        averageRating = reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+    }
+}
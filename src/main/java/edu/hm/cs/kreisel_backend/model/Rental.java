@@ -10,11 +10,15 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @Getter
 @Setter
 @Entity
-@Table(name = "app_rental")
+@Table(name = "app_rental", indexes = {
+        @Index(name = "idx_rental_open_end", columnList = "return_date, end_date"),
+        @Index(name = "idx_rental_rental_date", columnList = "rental_date")
+})
 public class Rental {
 
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_seq")
+        @SequenceGenerator(name = "rental_seq", sequenceName = "app_rental_seq", allocationSize = 50)
         private Long id;
 
         @ManyToOne
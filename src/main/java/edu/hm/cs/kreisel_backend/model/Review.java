@@ -13,11 +13,16 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "app_review")
+@Table(name = "app_review", indexes = {
+        @Index(name = "idx_review_item_created", columnList = "item_id, created_at, id"),
+        @Index(name = "idx_review_user_created", columnList = "user_id, created_at, id")
+})
 public class Review {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled Sequence: Hibernate reserviert 50 IDs pro Sequenzabruf und kann Inserts bündeln
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_seq")
+    @SequenceGenerator(name = "review_seq", sequenceName = "app_review_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
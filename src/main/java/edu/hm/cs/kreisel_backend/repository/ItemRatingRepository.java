@@ -0,0 +1,30 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.model.ItemRating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRatingRepository extends JpaRepository<ItemRating, Long> {
+
+    // Legt eine leere Statistik an, falls es noch keine gibt (bestehende Zeilen bleiben unverändert)
+    @Modifying
+    @Query(value = "MERGE INTO app_item_rating (item_id) KEY (item_id) VALUES (:itemId)", nativeQuery = true)
+    void insertIfAbsent(@Param("itemId") Long itemId);
+
+    // Sperrt die Zeile bis zum Ende der Transaktion, damit parallele Reviews sich nicht überschreiben
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ItemRating a WHERE a.itemId = :itemId")
+    Optional<ItemRating> findForUpdate(@Param("itemId") Long itemId);
+
+    // Für den Aufbau von TopRatedItemsIndex: itemId, Standort, Kategorie, Anzahl, Summe, Revision
+    @Query("SELECT a.itemId, i.location, i.category, a.reviewCount, a.ratingSum, a.revision " +
+            "FROM ItemRating a, Item i WHERE i.id = a.itemId")
+    List<Object[]> findRatedItemSegments();
+}
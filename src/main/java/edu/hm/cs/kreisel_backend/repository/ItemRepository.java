@@ -3,20 +3,21 @@ package edu.hm.cs.kreisel_backend.repository;
 import edu.hm.cs.kreisel_backend.model.Item;
 import edu.hm.cs.kreisel_backend.model.Item.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>, ItemRepositoryCustom {
 
     // 🔹 Für erste Filterstufe: Location
     List<Item> findByLocation(Location location);
     List<Item> findByLocationAndAvailable(Location location, boolean available);
 
-    // 🔹 Für optionale Textsuche (kombinierbar im Service)
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseOrBrandContainingIgnoreCase(
-            String name, String description, String brand
-    );
-
     // 🔹 Für alle verfügbaren Items (falls Location nicht relevant)
     List<Item> findByAvailableTrue();
+
+    // Höchste vergebene id, 0 wenn es noch keine Items gibt (für den Massenimport)
+    @Query("SELECT coalesce(max(i.id), 0) FROM Item i")
+    long findMaxId();
 }
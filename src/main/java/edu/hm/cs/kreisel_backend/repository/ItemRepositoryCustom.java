@@ -0,0 +1,12 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.model.Item;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ItemRepositoryCustom {
+
+    // Die ersten {limit} Treffer aufsteigend nach id, ohne zusätzliche COUNT-Abfrage
+    List<Item> findFirstOrderedById(Specification<Item> spec, int limit);
+}
@@ -0,0 +1,80 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.Item.*;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Baut die Filter aus {@code GET /api/items} als SQL-Prädikate zusammen,
+ * damit die Datenbank nur die passenden Items liefert.
+ * Jeder Filter, der {@code null} ist, wird weggelassen.
+ */
+public final class ItemSpecifications {
+
+    private ItemSpecifications() {
+    }
+
+    public static Specification<Item> matchesFilter(Location location, Boolean available, String searchQuery,
+                                                    Gender gender, Category category, Subcategory subcategory,
+                                                    String size) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Reihenfolge entspricht dem Index idx_item_location_available_category
+            if (location != null) {
+                predicates.add(cb.equal(root.get("location"), location));
+            }
+            if (available != null) {
+                predicates.add(cb.equal(root.get("available"), available));
+            }
+            if (category != null) {
+                predicates.add(cb.equal(root.get("category"), category));
+            }
+            if (subcategory != null) {
+                predicates.add(cb.equal(root.get("subcategory"), subcategory));
+            }
+            if (gender != null) {
+                predicates.add(cb.equal(root.get("gender"), gender));
+            }
+            if (size != null) {
+                predicates.add(cb.equal(cb.lower(cb.trim(root.get("size"))), size.trim().toLowerCase()));
+            }
+            if (searchQuery != null) {
+                predicates.add(matchesSearch(root, cb, searchQuery));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset-Bedingung für die nächste Seite
+    public static Specification<Item> idGreaterThan(Long cursor) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), cursor);
+    }
+
+    private static Predicate matchesSearch(Root<Item> root, CriteriaBuilder cb, String searchQuery) {
+        String pattern = "%" + escapeLike(searchQuery.toLowerCase()) + "%";
+        return cb.or(
+                containsIgnoreCase(cb, root.get("name"), pattern),
+                containsIgnoreCase(cb, root.get("brand"), pattern),
+                containsIgnoreCase(cb, root.get("description"), pattern)
+        );
+    }
+
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> field, String pattern) {
+        return cb.like(cb.lower(field), pattern, '\\');
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -1,20 +1,57 @@
 package edu.hm.cs.kreisel_backend.repository;
 
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
 import edu.hm.cs.kreisel_backend.model.Rental;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface RentalRepository extends JpaRepository<Rental, Long> {
+public interface RentalRepository extends JpaRepository<Rental, Long>, RentalRepositoryCustom {
 
-    List<Rental> findByUserId(Long userId);
+    // Die folgenden Abfragen bauen RentalResponse direkt per Join mit dem Item; der Status
+    // wird in SQL gegen ein Stichtagsdatum (:today) berechnet, nicht pro Zeile mit LocalDate.now()
+    String RESPONSE_SELECT = "SELECT new edu.hm.cs.kreisel_backend.dto.RentalResponse(" +
+            "r.id, i.id, i.name, i.brand, i.size, r.user.id, r.rentalDate, r.endDate, r.returnDate, r.extended, " +
+            "CASE WHEN r.returnDate IS NOT NULL THEN 'RETURNED' " +
+            "WHEN r.endDate < :today THEN 'OVERDUE' ELSE 'ACTIVE' END) " +
+            "FROM Rental r JOIN r.item i ";
+
+    @Query(RESPONSE_SELECT + "WHERE r.user.id = :userId ORDER BY r.id")
+    List<RentalResponse> findResponsesByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    @Query(RESPONSE_SELECT + "WHERE r.user.id = :userId AND r.returnDate IS NULL ORDER BY r.id")
+    List<RentalResponse> findActiveResponsesByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    @Query(RESPONSE_SELECT + "WHERE r.user.id = :userId AND r.returnDate IS NOT NULL ORDER BY r.id")
+    List<RentalResponse> findHistoricalResponsesByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    // Überfällige Rentals (nutzt idx_rental_open_end)
+    @Query(RESPONSE_SELECT + "WHERE r.returnDate IS NULL AND r.endDate < :today ORDER BY r.endDate, r.id")
+    List<RentalResponse> findOverdueResponses(@Param("today") LocalDate today);
+
+    @Query(RESPONSE_SELECT + "WHERE r.id IN :ids ORDER BY r.endDate, r.id")
+    List<RentalResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
 
     List<Rental> findByUserIdAndReturnDateIsNull(Long userId);
 
-    List<Rental> findByUserIdAndReturnDateIsNotNull(Long userId);
+    long countByUserIdAndReturnDateIsNull(Long userId);
 
     Optional<Rental> findByItemIdAndReturnDateIsNull(Long itemId);
 
+    long countByItemIdAndReturnDateIsNull(Long itemId);
+
+    // Für Sammel-Operationen: id, itemId, Ausleih-, End- und Rückgabedatum, verlängert, Standort des Items
+    @Query("SELECT r.id, i.id, r.rentalDate, r.endDate, r.returnDate, r.extended, i.location " +
+            "FROM Rental r JOIN r.item i WHERE r.id IN :ids")
+    List<Object[]> findBulkStates(@Param("ids") Collection<Long> ids);
+
+    // Nur id und Enddatum aller offenen Rentals, für OverdueRentalTracker
+    @Query("SELECT r.id, r.endDate FROM Rental r WHERE r.returnDate IS NULL")
+    List<Object[]> findOpenRentalEndDates();
+
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
+import edu.hm.cs.kreisel_backend.model.Item;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface RentalRepositoryCustom {
+
+    // Admin-Liste: null = nicht einschränken, Zeitraum bezieht sich auf das Ausleihdatum.
+    // Die Abfrage enthält nur die gesetzten Filter, der Status wird gegen :today berechnet.
+    Page<RentalResponse> findResponses(String status, Item.Location location, LocalDate from, LocalDate to,
+                                       LocalDate today, Pageable pageable);
+
+    // Setzt das Rückgabedatum offener Rentals in einem JDBC-Batch; Ergebnis pro id: 1 = geändert, 0 = nicht mehr offen
+    int[] markReturned(List<Long> rentalIds, LocalDate returnDate);
+
+    // Verlängert offene, noch nicht verlängerte Rentals, sofern das Enddatum noch dem gelesenen Stand entspricht
+    int[] markExtended(List<Extension> extensions);
+
+    // Items wieder verfügbar machen; die Version wird erhöht, damit parallele Ausleihen mit altem Stand scheitern
+    void markItemsAvailable(Collection<Long> itemIds);
+
+    record Extension(Long rentalId, LocalDate currentEndDate, LocalDate newEndDate) {
+    }
+}
@@ -0,0 +1,117 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.Rental;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RentalRepositoryCustomImpl implements RentalRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<RentalResponse> findResponses(String status, Item.Location location, LocalDate from, LocalDate to,
+                                              LocalDate today, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<RentalResponse> query = cb.createQuery(RentalResponse.class);
+        Root<Rental> rental = query.from(Rental.class);
+        Join<Rental, Item> item = rental.join("item");
+        Expression<String> rentalStatus = cb.<String>selectCase()
+                .when(cb.isNotNull(rental.get("returnDate")), "RETURNED")
+                .when(cb.lessThan(rental.<LocalDate>get("endDate"), today), "OVERDUE")
+                .otherwise("ACTIVE");
+        query.select(cb.construct(RentalResponse.class,
+                        rental.get("id"), item.get("id"), item.get("name"), item.get("brand"), item.get("size"),
+                        rental.get("user").get("id"), rental.get("rentalDate"), rental.get("endDate"),
+                        rental.get("returnDate"), rental.get("extended"), rentalStatus))
+                .where(adminFilter(cb, rental, item, status, location, from, to, today))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), rental, cb));
+        List<RentalResponse> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Zählen ohne Join, wenn nicht nach Standort gefiltert wird
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Rental> counted = countQuery.from(Rental.class);
+        Join<Rental, Item> countedItem = location != null ? counted.join("item") : null;
+        countQuery.select(cb.count(counted))
+                .where(adminFilter(cb, counted, countedItem, status, location, from, to, today));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static Predicate[] adminFilter(CriteriaBuilder cb, Root<Rental> rental, Join<Rental, Item> item,
+                                           String status, Item.Location location, LocalDate from, LocalDate to,
+                                           LocalDate today) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (location != null) {
+            predicates.add(cb.equal(item.get("location"), location));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(rental.<LocalDate>get("rentalDate"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(rental.<LocalDate>get("rentalDate"), to));
+        }
+        // Offene Rentals über idx_rental_open_end (return_date, end_date)
+        if ("RETURNED".equals(status)) {
+            predicates.add(cb.isNotNull(rental.get("returnDate")));
+        } else if ("ACTIVE".equals(status)) {
+            predicates.add(cb.isNull(rental.get("returnDate")));
+            predicates.add(cb.greaterThanOrEqualTo(rental.<LocalDate>get("endDate"), today));
+        } else if ("OVERDUE".equals(status)) {
+            predicates.add(cb.isNull(rental.get("returnDate")));
+            predicates.add(cb.lessThan(rental.<LocalDate>get("endDate"), today));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    @Override
+    public int[] markReturned(List<Long> rentalIds, LocalDate returnDate) {
+        return jdbcTemplate.batchUpdate(
+                "UPDATE app_rental SET return_date = ? WHERE id = ? AND return_date IS NULL",
+                rentalIds.stream()
+                        .map(id -> new Object[]{Date.valueOf(returnDate), id})
+                        .toList());
+    }
+
+    @Override
+    public int[] markExtended(List<Extension> extensions) {
+        return jdbcTemplate.batchUpdate(
+                "UPDATE app_rental SET end_date = ?, extended = TRUE " +
+                        "WHERE id = ? AND return_date IS NULL AND extended = FALSE AND end_date = ?",
+                extensions.stream()
+                        .map(e -> new Object[]{Date.valueOf(e.newEndDate()), e.rentalId(), Date.valueOf(e.currentEndDate())})
+                        .toList());
+    }
+
+    @Override
+    public void markItemsAvailable(Collection<Long> itemIds) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE app_item SET available = TRUE, version = version + 1 WHERE id = ?",
+                itemIds.stream()
+                        .map(id -> new Object[]{id})
+                        .toList());
+    }
+}
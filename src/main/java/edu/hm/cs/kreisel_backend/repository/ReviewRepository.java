@@ -1,44 +1,55 @@
 package edu.hm.cs.kreisel_backend.repository;
 
+import edu.hm.cs.kreisel_backend.dto.ReviewResponse;
 import edu.hm.cs.kreisel_backend.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    // Review für ein spezifisches Rental finden
-    Optional<Review> findByRentalId(Long rentalId);
-
-    // Alle Reviews für ein Item
-    List<Review> findByItemIdOrderByCreatedAtDesc(Long itemId);
+    // Die folgenden Abfragen bauen ReviewResponse direkt per Join - eine SQL-Abfrage pro Liste,
+    // ohne User/Item/Rental einzeln nachzuladen
+    String RESPONSE_SELECT = "SELECT new edu.hm.cs.kreisel_backend.dto.ReviewResponse(" +
+            "r.id, u.id, u.fullName, i.id, i.name, r.rental.id, r.rating, r.comment, r.createdAt, r.updatedAt) " +
+            "FROM Review r JOIN r.user u JOIN r.item i ";
+
+    // Gefiltert wird auf die Fremdschlüssel der Review, damit die Indizes
+    // idx_review_item_created / idx_review_user_created (Spalte, created_at, id) greifen.
+    // Erste Seite und Folgeseiten sind getrennte Abfragen: ein optionaler Cursor
+    // ("IS NULL OR ...") würde die Bereichssuche im Index verhindern.
+    String NEWEST_FIRST = " ORDER BY r.createdAt DESC, r.id DESC";
+    String BEFORE_CURSOR = " AND (r.createdAt, r.id) < (:createdAt, :id)";
+
+    // Reviews für ein Item, neueste zuerst
+    @Query(RESPONSE_SELECT + "WHERE r.item.id = :itemId" + NEWEST_FIRST)
+    List<ReviewResponse> findResponsesByItemId(@Param("itemId") Long itemId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE r.item.id = :itemId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ReviewResponse> findResponsesByItemIdBefore(@Param("itemId") Long itemId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    // Reviews von einem User, neueste zuerst
+    @Query(RESPONSE_SELECT + "WHERE r.user.id = :userId" + NEWEST_FIRST)
+    List<ReviewResponse> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE r.user.id = :userId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ReviewResponse> findResponsesByUserIdBefore(@Param("userId") Long userId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
 
-    // Alle Reviews von einem User
-    List<Review> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // Review für ein spezifisches Rental finden
+    @Query(RESPONSE_SELECT + "WHERE r.rental.id = :rentalId")
+    Optional<ReviewResponse> findResponseByRentalId(@Param("rentalId") Long rentalId);
 
     // Prüfen ob Review für Rental bereits existiert
     boolean existsByRentalId(Long rentalId);
-
-    // Durchschnittliche Bewertung für ein Item
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.item.id = :itemId")
-    Double findAverageRatingByItemId(@Param("itemId") Long itemId);
-
-    // Anzahl Reviews für ein Item
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.item.id = :itemId")
-    Integer countReviewsByItemId(@Param("itemId") Long itemId);
-
-    // Rating-Verteilung für ein Item
-    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.item.id = :itemId GROUP BY r.rating")
-    List<Object[]> findRatingDistributionByItemId(@Param("itemId") Long itemId);
-
-    // Top bewertete Items
-    @Query("SELECT r.item.id, AVG(r.rating) as avgRating, COUNT(r) as reviewCount " +
-            "FROM Review r " +
-            "GROUP BY r.item.id " +
-            "HAVING COUNT(r) >= :minReviews " +
-            "ORDER BY avgRating DESC")
-    List<Object[]> findTopRatedItems(@Param("minReviews") Integer minReviews);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.dto.UserResponse;
+import edu.hm.cs.kreisel_backend.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface UserRepositoryCustom {
+
+    // Admin-Liste: nur die benötigten Spalten, optional nach Rolle und Name/E-Mail (LIKE-Muster) gefiltert.
+    // Die Abfrage enthält nur die gesetzten Filter.
+    Page<UserResponse> findResponses(User.Role role, String search, Pageable pageable);
+}
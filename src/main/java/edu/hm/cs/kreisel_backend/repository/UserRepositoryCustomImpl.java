@@ -0,0 +1,59 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.dto.UserResponse;
+import edu.hm.cs.kreisel_backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserResponse> findResponses(User.Role role, String search, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.construct(UserResponse.class,
+                        user.get("id"), user.get("fullName"), user.get("email"), user.get("role")))
+                .where(adminFilter(cb, user, role, search))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), user, cb));
+        List<UserResponse> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<User> counted = countQuery.from(User.class);
+        countQuery.select(cb.count(counted)).where(adminFilter(cb, counted, role, search));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private static Predicate[] adminFilter(CriteriaBuilder cb, Root<User> user, User.Role role, String search) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (role != null) {
+            predicates.add(cb.equal(user.get("role"), role));
+        }
+        if (search != null) {
+            predicates.add(cb.or(
+                    cb.like(cb.lower(user.get("fullName")), search),
+                    cb.like(cb.lower(user.get("email")), search)));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -1,11 +1,13 @@
 package edu.hm.cs.kreisel_backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final KreiselUserDetailsService userDetailsService;
     private static final String JWT_COOKIE_NAME = "jwt";
 
+    // true = Principal nur aus den signierten Claims (userId, role), ohne User-Lookup.
+    // Rollenänderungen und Löschungen greifen dann erst mit dem nächsten Token.
+    @Value("${kreisel.security.jwt.stateless:false}")
+    private boolean stateless;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -43,15 +50,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // If we have a JWT, validate it and set up authentication
         if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                String username = jwtUtil.extractUsername(jwt);
-                if (username != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                // Einmal parsen: Signatur und Ablaufdatum sind danach geprüft
+                Claims claims = jwtUtil.parseToken(jwt);
+                UserDetails userDetails = stateless ? jwtUtil.extractPrincipal(claims) : null;
+                if (userDetails == null && claims.getSubject() != null) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             } catch (Exception e) {
                 // Invalid token, just continue without authentication
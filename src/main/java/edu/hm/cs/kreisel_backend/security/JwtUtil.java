@@ -1,13 +1,19 @@
 package edu.hm.cs.kreisel_backend.security;
 
+import edu.hm.cs.kreisel_backend.cache.ExpiringCache;
+import edu.hm.cs.kreisel_backend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,9 +22,37 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ROLE_CLAIM = "role";
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long jwtExpirationInMs = 1000 * 60 * 60 * 10; // 10 hours
 
+    // Der Parser ist nach build() unveränderlich und thread-safe
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Bereits verifizierte Tokens (ganzer Token-String als Schlüssel) -> Claims
+    private final ExpiringCache<String, Claims> verifiedTokens;
+
+    public JwtUtil(@Value("${kreisel.security.jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+                   @Value("${kreisel.security.jwt.verified-cache.ttl:PT10M}") Duration verifiedCacheTtl) {
+        this.verifiedTokens = new ExpiringCache<>(verifiedCacheSize, verifiedCacheTtl);
+    }
+
+    /**
+     * Verify signature and expiry once and return all claims. Repeated calls with the same
+     * token are answered from a cache without verifying the signature again.
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseToken(String token) {
+        Claims claims = verifiedTokens.get(token, t -> parser.parseClaimsJws(t).getBody());
+        if (claims.getExpiration() != null && claims.getExpiration().before(new Date())) {
+            verifiedTokens.evict(token);
+            throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -28,20 +62,28 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claimsResolver.apply(parseToken(token));
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Build the principal directly from the verified claims, without loading the user.
+     * @return The principal, or null if the token was issued without userId/role claims
+     */
+    public KreiselUserDetails extractPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new KreiselUserDetails(userId.longValue(), claims.getSubject(), null, null, User.Role.valueOf(role));
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof KreiselUserDetails principal) {
+            claims.put(USER_ID_CLAIM, principal.getId());
+            claims.put(ROLE_CLAIM, principal.getRole().name());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -56,7 +98,7 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        // parseToken wirft bei abgelaufenen Tokens
+        return parseToken(token).getSubject().equals(userDetails.getUsername());
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package edu.hm.cs.kreisel_backend.security;
+
+import edu.hm.cs.kreisel_backend.model.User;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+/**
+ * Unveränderlicher Principal mit id und Rolle des Users, damit Controller
+ * dafür nicht jedes Mal den User aus der Datenbank laden müssen.
+ */
+@Getter
+public class KreiselUserDetails implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+    private final String fullName;
+    private final User.Role role;
+    private final List<GrantedAuthority> authorities;
+
+    public KreiselUserDetails(Long id, String email, String password, String fullName, User.Role role) {
+        this.id = id;
+        this.email = email;
+        this.password = password != null ? password : "";
+        this.fullName = fullName;
+        this.role = role;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static KreiselUserDetails from(User user) {
+        return new KreiselUserDetails(user.getId(), user.getEmail(), user.getPassword(), user.getFullName(), user.getRole());
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
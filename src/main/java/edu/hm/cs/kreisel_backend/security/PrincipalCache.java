@@ -0,0 +1,44 @@
+package edu.hm.cs.kreisel_backend.security;
+
+import edu.hm.cs.kreisel_backend.cache.ExpiringCache;
+import edu.hm.cs.kreisel_backend.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cacht die Principals authentifizierter User nach E-Mail, damit weder der JWT-Filter
+ * noch {@link SecurityUtils} pro Request den User aus der Datenbank laden.
+ * Wird von {@code UserService} bei Änderungen und Löschungen invalidiert.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<String, KreiselUserDetails> cache;
+
+    public PrincipalCache(@Value("${kreisel.security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${kreisel.security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.cache = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    public KreiselUserDetails get(String email, Function<String, KreiselUserDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void evict(String email) {
+        cache.evict(email);
+    }
+
+    public void evictUser(Long userId) {
+        cache.evictIf((email, principal) -> principal.getId().equals(userId));
+    }
+
+    public CacheStats stats() {
+        long hits = cache.hitCount();
+        long misses = cache.missCount();
+        long requests = hits + misses;
+        return new CacheStats(cache.size(), hits, misses, requests == 0 ? 0.0 : (double) hits / requests);
+    }
+}
@@ -5,7 +5,6 @@ import edu.hm.cs.kreisel_backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,25 +14,36 @@ public class SecurityUtils {
     private final UserRepository userRepository;
 
     /**
-     * Get the currently authenticated user from the security context
-     * @return The authenticated user, or null if no user is authenticated
+     * Get the principal of the authenticated user (id, email, role) without a database query
+     * @return The principal, or null if no user is authenticated
      */
-    public User getCurrentUser() {
+    public KreiselUserDetails getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return null;
         }
 
-        Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
-            String email = ((UserDetails) principal).getUsername();
-            return userRepository.findByEmail(email)
-                    .orElse(null);
+        if (authentication.getPrincipal() instanceof KreiselUserDetails principal) {
+            return principal;
         }
-        
+
         return null;
     }
 
+    /**
+     * Load the full user entity of the authenticated user. Prefer {@link #getCurrentPrincipal()}
+     * when only id or role are needed.
+     * @return The authenticated user, or null if no user is authenticated
+     */
+    public User getCurrentUser() {
+        KreiselUserDetails principal = getCurrentPrincipal();
+        if (principal == null) {
+            return null;
+        }
+        return userRepository.findById(principal.getId())
+                .orElse(null);
+    }
+
     /**
      * Check if the current user is authenticated
      * @return true if a user is authenticated, false otherwise
@@ -6,8 +6,8 @@ import edu.hm.cs.kreisel_backend.dto.RegisterRequest;
 import edu.hm.cs.kreisel_backend.model.User;
 import edu.hm.cs.kreisel_backend.repository.UserRepository;
 import edu.hm.cs.kreisel_backend.security.JwtUtil;
+import edu.hm.cs.kreisel_backend.security.KreiselUserDetails;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -45,13 +45,8 @@ public class AuthService {
 
         user = userRepository.save(user);
 
-        // Generate JWT token
-        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities("ROLE_" + user.getRole().name())
-                .build();
-        String token = jwtUtil.generateToken(userDetails);
+        // Generate JWT token (mit userId und Rolle als Claims)
+        String token = jwtUtil.generateToken(KreiselUserDetails.from(user));
 
         return AuthResponse.builder()
                 .userId(user.getId())
@@ -71,13 +66,8 @@ public class AuthService {
             throw new RuntimeException("Email oder Passwort falsch");
         }
 
-        // Generate JWT token
-        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities("ROLE_" + user.getRole().name())
-                .build();
-        String token = jwtUtil.generateToken(userDetails);
+        // Generate JWT token (mit userId und Rolle als Claims)
+        String token = jwtUtil.generateToken(KreiselUserDetails.from(user));
 
         return AuthResponse.builder()
                 .userId(user.getId())
@@ -0,0 +1,210 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.dto.AvailabilityEvent;
+import edu.hm.cs.kreisel_backend.model.Item.Location;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verteilt Verfügbarkeitsänderungen per Server-Sent Events an alle Abonnenten eines Standorts.
+ * Wartende Abonnenten belegen nur ihren {@link SseEmitter} (asynchrone Servlet-Anfrage, kein Thread).
+ * Jeder Abonnent hat eine eigene, begrenzte Warteschlange; {@link #publish} stellt nur ein und
+ * blockiert den Aufrufer (Ausleihe, Rückgabe, Item-Update) nie. Gesendet wird aus einem Pool ohne
+ * feste Obergrenze, in dem pro Abonnent höchstens ein Auftrag läuft. Ein Client, der nicht mehr liest,
+ * belegt daher nur seinen eigenen Thread, bis der Schreib-Timeout des Containers
+ * ({@code server.tomcat.connection-timeout}) das hängende Senden abbricht; die übrigen Abonnenten
+ * bekommen ihre Events weiter. Läuft seine Warteschlange über oder hängt ein Senden länger als
+ * {@code send-timeout}, wird er sofort abgemeldet und holt sich den Stand beim nächsten Laden des Katalogs.
+ * Der Emitter selbst wird nur vom Sender-Thread beendet: {@link SseEmitter#complete()} wartet auf ein
+ * laufendes Senden, und weder {@link #publish} noch der Heartbeat sollen daran hängen bleiben.
+ */
+@Slf4j
+@Component
+public class AvailabilityBroadcaster {
+
+    private static final String EVENT_NAME = "availability";
+
+    private final int maxSubscribers;
+    private final long emitterTimeoutMs;
+    private final int queueSize;
+    private final long sendTimeoutNanos;
+    private final Map<Location, Set<Subscriber>> subscribers = new EnumMap<>(Location.class);
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+
+    public AvailabilityBroadcaster(@Value("${kreisel.items.availability-stream.max-subscribers:5000}") int maxSubscribers,
+                                   @Value("${kreisel.items.availability-stream.timeout:PT30M}") Duration timeout,
+                                   @Value("${kreisel.items.availability-stream.queue-size:100}") int queueSize,
+                                   @Value("${kreisel.items.availability-stream.send-timeout:PT10S}") Duration sendTimeout) {
+        this.maxSubscribers = maxSubscribers;
+        this.emitterTimeoutMs = timeout.toMillis();
+        this.queueSize = queueSize;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        for (Location location : Location.values()) {
+            subscribers.put(location, ConcurrentHashMap.newKeySet());
+        }
+        // Höchstens ein Auftrag pro Abonnent, die Zahl der Threads ist also durch maxSubscribers begrenzt;
+        // untätige Threads beendet der Pool nach einer Minute wieder
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(
+                runnable -> new Thread(runnable, "availability-stream-" + threadNumber.incrementAndGet()));
+    }
+
+    // null, wenn bereits die maximale Anzahl an Abonnenten verbunden ist
+    public SseEmitter subscribe(Location location) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(location, emitter, new ArrayBlockingQueue<>(queueSize));
+        subscribers.get(location).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    public void publish(Location location, Long itemId, boolean available) {
+        if (location == null) {
+            return;
+        }
+        AvailabilityEvent event = new AvailabilityEvent(itemId, available);
+        for (Subscriber subscriber : subscribers.get(location)) {
+            enqueue(subscriber, SseEmitter.event().name(EVENT_NAME).data(event));
+        }
+    }
+
+    // Kommentarzeile an alle, damit Proxys idle Verbindungen nicht schließen und tote Verbindungen auffallen.
+    // Dabei werden auch Abonnenten abgemeldet, deren letztes Senden zu lange hängt.
+    @Scheduled(fixedRateString = "${kreisel.items.availability-stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(locationSubscribers -> {
+            for (Subscriber subscriber : locationSubscribers) {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > sendTimeoutNanos) {
+                    drop(subscriber, "Senden hängt");
+                } else {
+                    enqueue(subscriber, SseEmitter.event().comment("ping"));
+                }
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            drop(subscriber, "Warteschlange voll");
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutdown läuft
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    // Sendet die Warteschlange eines Abonnenten leer; läuft pro Abonnent höchstens einmal gleichzeitig.
+    // Abgemeldete Abonnenten werden hier beendet, scheduled bleibt danach gesetzt.
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, event)) {
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            if (subscriber.closed) {
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.scheduled.set(false);
+            // Zwischen letztem poll und dem Zurücksetzen eingestellte Events nicht liegen lassen
+        } while ((subscriber.closed || !subscriber.queue.isEmpty()) && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.sendingSince = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client weg oder Schreib-Timeout: austragen, der Container räumt die Anfrage ab
+            subscriber.closed = true;
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        } finally {
+            subscriber.sendingSince = 0;
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (remove(subscriber)) {
+            log.debug("SSE-Abonnent für {} abgemeldet: {}", subscriber.location, reason);
+            subscriber.closed = true;
+            // Beenden übernimmt der Sender-Thread, sobald ein laufendes Senden zurückkehrt
+            schedule(subscriber);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (subscribers.get(subscriber.location).remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.values().forEach(locationSubscribers ->
+                locationSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private static final class Subscriber {
+        private final Location location;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long sendingSince; // 0 = sendet gerade nicht
+        private volatile boolean closed;
+
+        private Subscriber(Location location, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> queue) {
+            this.location = location;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.model.Item.Location;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versionszähler für die ETags der Katalog- und Review-Endpunkte. Jede Änderung bekommt
+ * eine neue Nummer aus einem gemeinsamen Zähler; pro Standort, pro Item und pro
+ * Item-Bewertung wird die zuletzt vergebene Nummer gemerkt. Die Startzeit im ETag sorgt
+ * dafür, dass ETags nach einem Neustart nicht mehr passen.
+ * <p>
+ * Die Version muss gelesen werden, bevor die Daten geladen werden: Ändert sich während
+ * der Abfrage etwas, bekommt der Client höchstens ein zu altes ETag und lädt beim nächsten Mal neu.
+ */
+@Component
+public class CatalogVersions {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Location, AtomicLong> byLocation = new EnumMap<>(Location.class);
+    private final Map<Long, Long> byItem = new ConcurrentHashMap<>();
+    private final Map<Long, Long> reviewsByItem = new ConcurrentHashMap<>();
+
+    public CatalogVersions() {
+        for (Location location : Location.values()) {
+            byLocation.put(location, new AtomicLong());
+        }
+    }
+
+    // Item angelegt, geändert oder Verfügbarkeit geändert; bei Standortwechsel alter und neuer Standort
+    public void itemChanged(Long itemId, Location... locations) {
+        long version = sequence.incrementAndGet();
+        byItem.put(itemId, version);
+        for (Location location : locations) {
+            if (location != null) {
+                byLocation.get(location).set(version);
+            }
+        }
+    }
+
+    public void itemDeleted(Long itemId) {
+        itemChanged(itemId, Location.values());
+    }
+
+    public void ratingsChanged(Long itemId) {
+        reviewsByItem.put(itemId, sequence.incrementAndGet());
+    }
+
+    public String catalogETag(Location location) {
+        return etag("catalog-" + location + "-" + byLocation.get(location).get());
+    }
+
+    public String itemETag(Long itemId) {
+        return etag("item-" + itemId + "-" + byItem.getOrDefault(itemId, 0L));
+    }
+
+    public String ratingStatsETag(Long itemId) {
+        return etag("ratings-" + itemId + "-" + reviewsByItem.getOrDefault(itemId, 0L));
+    }
+
+    private String etag(String version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,283 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hm.cs.kreisel_backend.dto.ItemImportResult;
+import edu.hm.cs.kreisel_backend.model.Item.*;
+import edu.hm.cs.kreisel_backend.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Massenimport und -export des Katalogs als CSV (mit Kopfzeile) oder NDJSON (ein JSON-Objekt pro Zeile).
+ * Beide Richtungen arbeiten zeilenweise auf dem Stream: Beim Import werden jeweils
+ * {@code chunkSize} Zeilen als JDBC-Batch in einer Transaktion geschrieben, beim Export
+ * wird das ResultSet direkt in die Antwort geschrieben. Der Speicherbedarf hängt damit
+ * nicht von der Anzahl der Items ab.
+ */
+@Service
+public class ItemBulkService {
+
+    public static final List<String> COLUMNS = List.of(
+            "name", "size", "available", "description", "brand",
+            "location", "gender", "category", "subcategory", "zustand");
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final String INSERT_SQL = "INSERT INTO app_item " +
+            "(name, size, available, description, brand, location, gender, category, subcategory, zustand) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EXPORT_SQL = "SELECT id, " + String.join(", ", COLUMNS) + " FROM app_item ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemRepository itemRepository;
+    private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ItemBulkService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           ItemRepository itemRepository, ItemService itemService, ObjectMapper objectMapper,
+                           @Value("${kreisel.items.import.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.itemRepository = itemRepository;
+        this.itemService = itemService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    // Ungültige Zeilen werden übersprungen und gemeldet, gültige trotzdem importiert
+    public ItemImportResult importItems(InputStream input, Format format) throws IOException {
+        long maxIdBefore = itemRepository.findMaxId();
+        ItemImportResult result = new ItemImportResult();
+        List<Object[]> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Integer> header = format == Format.CSV ? readHeader(reader) : null;
+        String line;
+        int lineNumber = format == Format.CSV ? 1 : 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Map<String, String> values = format == Format.CSV ? csvValues(header, line) : jsonValues(line);
+                chunk.add(toRow(values));
+            } catch (RuntimeException e) {
+                result.setRejected(result.getRejected() + 1);
+                if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                    result.getErrors().add("Zeile " + lineNumber + ": " + e.getMessage());
+                }
+            }
+            if (chunk.size() >= chunkSize) {
+                result.setImported(result.getImported() + insert(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result.setImported(result.getImported() + insert(chunk));
+        }
+
+        // Neue Items in Such- und Facettenindex aufnehmen. Die IDs sind nicht fortlaufend: jede Zeile
+        // verbraucht einen Sequenzschritt (INCREMENT BY 50), parallele Sitzungen verschränken ihre
+        // Bereiche. Sie liegen aber alle über maxIdBefore, daher wird alles mit id > maxIdBefore
+        // aufgenommen; parallel angelegte Items dabei erneut zu indizieren schadet nicht.
+        itemService.itemsImported(maxIdBefore);
+        return result;
+    }
+
+    private int insert(List<Object[]> rows) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        return rows.size();
+    }
+
+    private Map<String, Integer> readHeader(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            throw new RuntimeException("CSV-Datei ist leer");
+        }
+        List<String> names = parseCsvLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("name")) {
+            throw new RuntimeException("CSV-Kopfzeile muss die Spalte 'name' enthalten");
+        }
+        return header;
+    }
+
+    private Map<String, String> csvValues(Map<String, Integer> header, String line) {
+        List<String> fields = parseCsvLine(line);
+        Map<String, String> values = new HashMap<>();
+        for (String column : COLUMNS) {
+            Integer index = header.get(column);
+            if (index != null && index < fields.size()) {
+                values.put(column, fields.get(index));
+            }
+        }
+        return values;
+    }
+
+    private Map<String, String> jsonValues(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new RuntimeException("Ungültiges JSON");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String column : COLUMNS) {
+            JsonNode value = node.get(column);
+            if (value != null && !value.isNull()) {
+                values.put(column, value.asText());
+            }
+        }
+        return values;
+    }
+
+    // Reihenfolge wie in INSERT_SQL; Enums und available werden hier validiert
+    private Object[] toRow(Map<String, String> values) {
+        String name = blankToNull(values.get("name"));
+        if (name == null) {
+            throw new RuntimeException("Name fehlt");
+        }
+        return new Object[]{
+                name,
+                blankToNull(values.get("size")),
+                booleanValue("available", values.get("available"), true),
+                blankToNull(values.get("description")),
+                blankToNull(values.get("brand")),
+                enumValue(Location.class, "location", values.get("location")),
+                enumValue(Gender.class, "gender", values.get("gender")),
+                enumValue(Category.class, "category", values.get("category")),
+                enumValue(Subcategory.class, "subcategory", values.get("subcategory")),
+                enumValue(Zustand.class, "zustand", values.get("zustand"))
+        };
+    }
+
+    private <E extends Enum<E>> String enumValue(Class<E> type, String column, String value) {
+        value = blankToNull(value);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Ungültiger Wert für " + column + ": " + value);
+        }
+    }
+
+    // Nur true/false (beliebige Schreibweise); leer = Standardwert, alles andere ist ein Zeilenfehler
+    private static boolean booleanValue(String column, String value, boolean defaultValue) {
+        value = blankToNull(value);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new RuntimeException("Ungültiger Wert für " + column + ": " + value);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // Einfaches CSV: Trennzeichen Komma, Felder optional in "..." mit "" als Escape; keine Zeilenumbrüche in Feldern
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public void exportItems(OutputStream output, Format format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write("id," + String.join(",", COLUMNS) + "\n");
+        }
+        RowCallbackHandler handler = format == Format.CSV ? rs -> writeCsvRow(writer, rs) : rs -> writeJsonRow(writer, rs);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+            statement.setFetchSize(chunkSize);
+            return statement;
+        }, handler);
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs) throws SQLException {
+        StringBuilder row = new StringBuilder().append(rs.getLong("id"));
+        for (String column : COLUMNS) {
+            String value = rs.getString(column);
+            row.append(',').append(value == null ? "" : csvEscape(value));
+        }
+        write(writer, row.append('\n').toString());
+    }
+
+    private void writeJsonRow(Writer writer, ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        for (String column : COLUMNS) {
+            row.put(column, column.equals("available") ? rs.getBoolean(column) : rs.getString(column));
+        }
+        try {
+            write(writer, objectMapper.writeValueAsString(row) + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvEscape(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"").replace("\r", " ").replace("\n", " ") + "\"";
+        }
+        return value;
+    }
+
+    private static void write(Writer writer, String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
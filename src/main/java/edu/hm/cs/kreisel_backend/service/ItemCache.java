@@ -0,0 +1,54 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.cache.ExpiringCache;
+import edu.hm.cs.kreisel_backend.dto.CacheStats;
+import edu.hm.cs.kreisel_backend.model.Item;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cacht Items nach id für {@link ItemService}. Katalogseiten bestehen aus IDs aus den
+ * In-Memory-Indizes plus diesen Items und kommen damit im Normalfall ganz ohne SQL aus.
+ * Geänderte Items werden von ItemService direkt übernommen (write-through), bei
+ * Verfügbarkeitsänderungen durch Ausleihe oder Rückgabe wird genau das betroffene Item entfernt.
+ * Die gecachten Instanzen sind geteilt und dürfen nicht verändert werden.
+ */
+@Component
+public class ItemCache {
+
+    private final ExpiringCache<Long, Item> cache;
+
+    public ItemCache(@Value("${kreisel.items.cache.max-size:5000}") int maxSize,
+                     @Value("${kreisel.items.cache.ttl:PT10M}") Duration ttl) {
+        this.cache = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    public Item get(Long id, Function<Long, Item> loader) {
+        return cache.get(id, loader);
+    }
+
+    public Map<Long, Item> getAll(Collection<Long> ids, Function<List<Long>, Map<Long, Item>> loader) {
+        return cache.getAll(ids, loader);
+    }
+
+    public void put(Item item) {
+        cache.put(item.getId(), item);
+    }
+
+    public void evict(Long id) {
+        cache.evict(id);
+    }
+
+    public CacheStats stats() {
+        long hits = cache.hitCount();
+        long misses = cache.missCount();
+        long requests = hits + misses;
+        return new CacheStats(cache.size(), hits, misses, requests == 0 ? 0.0 : (double) hits / requests);
+    }
+}
@@ -0,0 +1,339 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.dto.ItemFacetCounts;
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.Item.*;
+import edu.hm.cs.kreisel_backend.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap-Index über die Enum-Felder, die Größe und die Verfügbarkeit aller Items.
+ * Jedes Item bekommt eine Ordinalzahl; pro Facettenwert gibt es ein
+ * {@link BitSet} über diese Ordinalzahlen. Eine Filterkombination ist damit nur
+ * noch ein paar wortweise AND-Operationen, Zählungen sind {@link BitSet#cardinality()}.
+ * Ordinalzahlen werden in Einfügereihenfolge vergeben und nach dem Löschen wiederverwendet;
+ * die id-Reihenfolge für das Blättern per Cursor liefert die sortierte Map id -&gt; Ordinalzahl.
+ * IDs kommen daher auch außer der Reihe (gepoolte Sequenzen, Importe) ohne Umsortieren hinzu.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemFacetIndex {
+
+    // Ab diesem Verhältnis Items/Treffer werden Treffer sortiert statt die IDs ab dem Cursor abzulaufen
+    private static final int SPARSE_MATCH_FACTOR = 16;
+
+    private final ItemRepository itemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Long> idByOrdinal = new ArrayList<>(); // null = frei
+    private final NavigableMap<Long, Integer> ordinalById = new TreeMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Map<Location, BitSet> byLocation = new EnumMap<>(Location.class);
+    private final Map<Gender, BitSet> byGender = new EnumMap<>(Gender.class);
+    private final Map<Category, BitSet> byCategory = new EnumMap<>(Category.class);
+    private final Map<Subcategory, BitSet> bySubcategory = new EnumMap<>(Subcategory.class);
+    private final Map<Zustand, BitSet> byZustand = new EnumMap<>(Zustand.class);
+    private final Map<String, BitSet> bySize = new HashMap<>();
+    private final Map<String, String> sizeLabels = new HashMap<>(); // normalisiert -> Schreibweise
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Unter dem Lock laden, sonst überschreibt der Stand der Abfrage parallele index()/remove()
+            List<Item> items = itemRepository.findAll(Sort.by("id"));
+            idByOrdinal.clear();
+            ordinalById.clear();
+            freeOrdinals.clear();
+            live.clear();
+            available.clear();
+            byLocation.clear();
+            byGender.clear();
+            byCategory.clear();
+            bySubcategory.clear();
+            byZustand.clear();
+            bySize.clear();
+            sizeLabels.clear();
+            items.forEach(this::indexLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            indexLocked(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.remove(itemId);
+            if (ordinal != null) {
+                clearLocked(ordinal);
+                idByOrdinal.set(ordinal, null);
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setAvailable(Long itemId, boolean value) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(itemId);
+            if (ordinal != null) {
+                available.set(ordinal, value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Liefert aufsteigend sortiert die ersten {@code limit} IDs mit id &gt; {@code afterId},
+     * die zum Filter passen und - falls gesetzt - in {@code restrictTo} enthalten sind.
+     */
+    public List<Long> findIds(ItemFilter filter, Set<Long> restrictTo, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet scope = live;
+            if (restrictTo != null) {
+                scope = new BitSet();
+                for (Long id : restrictTo) {
+                    Integer ordinal = ordinalById.get(id);
+                    if (ordinal != null && (afterId == null || id > afterId)) {
+                        scope.set(ordinal);
+                    }
+                }
+            }
+            BitSet matches = matchLocked(filter, scope);
+            int matchCount = matches.cardinality();
+            List<Long> ids = new ArrayList<>(Math.min(limit, matchCount));
+            if ((long) matchCount * SPARSE_MATCH_FACTOR < live.cardinality()) {
+                // Wenige Treffer: direkt einsammeln und sortieren statt viele IDs ohne Treffer abzulaufen
+                matches.stream()
+                        .mapToObj(idByOrdinal::get)
+                        .filter(id -> afterId == null || id > afterId)
+                        .sorted()
+                        .limit(limit)
+                        .forEach(ids::add);
+                return ids;
+            }
+            // Viele Treffer: in id-Reihenfolge ab dem Cursor laufen, bis die Seite voll ist
+            SortedMap<Long, Integer> tail = afterId != null ? ordinalById.tailMap(afterId, false) : ordinalById;
+            for (Map.Entry<Long, Integer> entry : tail.entrySet()) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                if (matches.get(entry.getValue())) {
+                    ids.add(entry.getKey());
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(ItemFilter filter) {
+        lock.readLock().lock();
+        try {
+            return matchLocked(filter).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zählt pro Facettenwert die passenden Items. Für jede Facette wird der eigene
+     * Filter ignoriert, alle anderen gelten. {@code restrictTo} schränkt zusätzlich
+     * auf Suchtreffer ein.
+     */
+    public ItemFacetCounts countFacets(ItemFilter filter, Set<Long> restrictTo) {
+        lock.readLock().lock();
+        try {
+            BitSet scope = (BitSet) live.clone();
+            if (restrictTo != null) {
+                scope.clear();
+                for (Long id : restrictTo) {
+                    Integer ordinal = ordinalById.get(id);
+                    if (ordinal != null) {
+                        scope.set(ordinal);
+                    }
+                }
+            }
+
+            ItemFacetCounts counts = new ItemFacetCounts();
+            BitSet all = matchLocked(filter, scope);
+            counts.setTotal(all.cardinality());
+
+            BitSet withoutAvailability = matchLocked(new ItemFilter(filter.location(), null, filter.gender(),
+                    filter.category(), filter.subcategory(), filter.zustand(), filter.size()), scope);
+            int availableCount = intersectionSize(withoutAvailability, available);
+            counts.setAvailable(availableCount);
+            counts.setUnavailable(withoutAvailability.cardinality() - availableCount);
+
+            counts.setGenders(countValues(Gender.values(), byGender, matchLocked(new ItemFilter(filter.location(),
+                    filter.available(), null, filter.category(), filter.subcategory(), filter.zustand(),
+                    filter.size()), scope)));
+            counts.setCategories(countValues(Category.values(), byCategory, matchLocked(new ItemFilter(
+                    filter.location(), filter.available(), filter.gender(), null, filter.subcategory(),
+                    filter.zustand(), filter.size()), scope)));
+            counts.setSubcategories(countValues(Subcategory.values(), bySubcategory, matchLocked(new ItemFilter(
+                    filter.location(), filter.available(), filter.gender(), filter.category(), null,
+                    filter.zustand(), filter.size()), scope)));
+            counts.setZustand(countValues(Zustand.values(), byZustand, matchLocked(new ItemFilter(
+                    filter.location(), filter.available(), filter.gender(), filter.category(),
+                    filter.subcategory(), null, filter.size()), scope)));
+
+            BitSet withoutSize = matchLocked(new ItemFilter(filter.location(), filter.available(), filter.gender(),
+                    filter.category(), filter.subcategory(), filter.zustand(), null), scope);
+            Map<String, Integer> sizes = new TreeMap<>();
+            bySize.forEach((size, bits) -> {
+                int count = intersectionSize(withoutSize, bits);
+                if (count > 0) {
+                    sizes.put(sizeLabels.get(size), count);
+                }
+            });
+            counts.setSizes(sizes);
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> countValues(E[] values, Map<E, BitSet> facet, BitSet base) {
+        Map<E, Integer> counts = new LinkedHashMap<>();
+        for (E value : values) {
+            BitSet bits = facet.get(value);
+            counts.put(value, bits == null ? 0 : intersectionSize(base, bits));
+        }
+        return counts;
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet intersection = (BitSet) a.clone();
+        intersection.and(b);
+        return intersection.cardinality();
+    }
+
+    private BitSet matchLocked(ItemFilter filter) {
+        return matchLocked(filter, live);
+    }
+
+    private BitSet matchLocked(ItemFilter filter, BitSet scope) {
+        BitSet result = (BitSet) scope.clone();
+        if (filter.location() != null) {
+            and(result, byLocation.get(filter.location()));
+        }
+        if (filter.available() != null) {
+            if (filter.available()) {
+                result.and(available);
+            } else {
+                result.andNot(available);
+            }
+        }
+        if (filter.gender() != null) {
+            and(result, byGender.get(filter.gender()));
+        }
+        if (filter.category() != null) {
+            and(result, byCategory.get(filter.category()));
+        }
+        if (filter.subcategory() != null) {
+            and(result, bySubcategory.get(filter.subcategory()));
+        }
+        if (filter.zustand() != null) {
+            and(result, byZustand.get(filter.zustand()));
+        }
+        if (filter.size() != null) {
+            and(result, bySize.get(normalizeSize(filter.size())));
+        }
+        return result;
+    }
+
+    private static void and(BitSet result, BitSet facet) {
+        if (facet == null) {
+            result.clear();
+        } else {
+            result.and(facet);
+        }
+    }
+
+    private void indexLocked(Item item) {
+        Integer ordinal = ordinalById.get(item.getId());
+        if (ordinal == null) {
+            ordinal = freeOrdinals.poll();
+            if (ordinal == null) {
+                ordinal = idByOrdinal.size();
+                idByOrdinal.add(item.getId());
+            } else {
+                idByOrdinal.set(ordinal, item.getId());
+            }
+            ordinalById.put(item.getId(), ordinal);
+        } else {
+            clearLocked(ordinal);
+        }
+
+        live.set(ordinal);
+        available.set(ordinal, item.isAvailable());
+        setFacet(byLocation, item.getLocation(), ordinal);
+        setFacet(byGender, item.getGender(), ordinal);
+        setFacet(byCategory, item.getCategory(), ordinal);
+        setFacet(bySubcategory, item.getSubcategory(), ordinal);
+        setFacet(byZustand, item.getZustand(), ordinal);
+        if (item.getSize() != null) {
+            String size = normalizeSize(item.getSize());
+            setFacet(bySize, size, ordinal);
+            sizeLabels.putIfAbsent(size, item.getSize().trim());
+        }
+    }
+
+    private void clearLocked(int ordinal) {
+        live.clear(ordinal);
+        available.clear(ordinal);
+        byLocation.values().forEach(bits -> bits.clear(ordinal));
+        byGender.values().forEach(bits -> bits.clear(ordinal));
+        byCategory.values().forEach(bits -> bits.clear(ordinal));
+        bySubcategory.values().forEach(bits -> bits.clear(ordinal));
+        byZustand.values().forEach(bits -> bits.clear(ordinal));
+        bySize.entrySet().removeIf(entry -> {
+            entry.getValue().clear(ordinal);
+            if (entry.getValue().isEmpty()) {
+                sizeLabels.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static <K> void setFacet(Map<K, BitSet> facet, K key, int ordinal) {
+        if (key != null) {
+            facet.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static String normalizeSize(String size) {
+        return size.trim().toLowerCase(Locale.ROOT);
+    }
+}
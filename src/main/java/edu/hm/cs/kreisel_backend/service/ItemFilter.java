@@ -0,0 +1,10 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.model.Item.*;
+
+/**
+ * Facetten-Filter für Items; {@code null} bedeutet "nicht gefiltert".
+ */
+public record ItemFilter(Location location, Boolean available, Gender gender, Category category,
+                         Subcategory subcategory, Zustand zustand, String size) {
+}
@@ -0,0 +1,230 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Invertierter Index über Name, Marke und Beschreibung aller Items.
+ * Tokens werden kleingeschrieben und Umlaute normalisiert (ä → ae, ß → ss); Tokens mit Umlaut
+ * werden zusätzlich mit dem Grundbuchstaben indiziert (ä → a), damit "Mütze", "MUETZE" und
+ * "mutze" gleich behandelt werden.
+ * Jeder Begriff wird als Teilstring eines Tokens gefunden. Dafür sind alle Teilstrings mit
+ * 1 bis {@value #NGRAM_SIZE} Zeichen indiziert: kurze Begriffe sind ein einzelner Lookup,
+ * längere die Schnittmenge ihrer Trigramme.
+ * Mehrere Begriffe werden UND-verknüpft und müssen nicht direkt hintereinander stehen.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final int NGRAM_SIZE = 3;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final ItemRepository itemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Set<Long>> postings = new HashMap<>();          // Token -> Item-IDs
+    private final Map<String, Set<String>> ngrams = new HashMap<>();          // Teilstring (1-3 Zeichen) -> Tokens
+    private final Map<Long, Set<String>> tokensByItem = new HashMap<>();      // Item-ID -> Tokens
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Unter dem Lock laden, sonst überschreibt der Stand der Abfrage parallele index()/remove()
+            List<Item> items = itemRepository.findAll();
+            postings.clear();
+            ngrams.clear();
+            tokensByItem.clear();
+            items.forEach(this::addLocked);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(item.getId());
+            addLocked(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Liefert die IDs aller Items, die jeden Begriff der Suchanfrage enthalten.
+     */
+    public Set<Long> search(String searchQuery) {
+        Set<String> terms = tokenize(searchQuery);
+        if (terms.isEmpty()) {
+            return Set.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String term : terms) {
+                Set<Long> matches = matchTerm(term);
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.retainAll(matches);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> matchTerm(String term) {
+        Set<Long> ids = new HashSet<>();
+        if (term.length() <= NGRAM_SIZE) {
+            // Kurze Begriffe sind selbst indiziert, alle Tokens darunter enthalten sie
+            ngrams.getOrDefault(term, Set.of()).forEach(token -> ids.addAll(postings.get(token)));
+            return ids;
+        }
+
+        // Kandidaten = Schnittmenge der Tokens aller Trigramme, danach echter Teilstring-Check
+        Set<String> candidates = null;
+        for (String gram : trigramsOf(term)) {
+            Set<String> tokens = ngrams.getOrDefault(gram, Set.of());
+            if (candidates == null) {
+                candidates = new HashSet<>(tokens);
+            } else {
+                candidates.retainAll(tokens);
+            }
+            if (candidates.isEmpty()) {
+                return ids;
+            }
+        }
+        for (String token : candidates) {
+            if (token.contains(term)) {
+                ids.addAll(postings.get(token));
+            }
+        }
+        return ids;
+    }
+
+    private void addLocked(Item item) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : new String[]{item.getName(), item.getBrand(), item.getDescription()}) {
+            tokens.addAll(tokenize(text));
+            tokens.addAll(tokenize(text, ItemSearchIndex::foldToBaseLetter));
+        }
+
+        tokensByItem.put(item.getId(), tokens);
+        for (String token : tokens) {
+            Set<Long> ids = postings.computeIfAbsent(token, t -> new HashSet<>());
+            if (ids.isEmpty()) {
+                ngramsOf(token).forEach(gram -> ngrams.computeIfAbsent(gram, g -> new HashSet<>()).add(token));
+            }
+            ids.add(item.getId());
+        }
+    }
+
+    private void removeLocked(Long itemId) {
+        Set<String> tokens = tokensByItem.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+                for (String gram : ngramsOf(token)) {
+                    Set<String> gramTokens = ngrams.get(gram);
+                    gramTokens.remove(token);
+                    if (gramTokens.isEmpty()) {
+                        ngrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    // Alle Teilstrings mit 1 bis NGRAM_SIZE Zeichen
+    private static Set<String> ngramsOf(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= NGRAM_SIZE; length++) {
+            for (int i = 0; i + length <= token.length(); i++) {
+                grams.add(token.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + NGRAM_SIZE <= term.length(); i++) {
+            grams.add(term.substring(i, i + NGRAM_SIZE));
+        }
+        return grams;
+    }
+
+    static Set<String> tokenize(String text) {
+        return tokenize(text, ItemSearchIndex::normalize);
+    }
+
+    private static Set<String> tokenize(String text, UnaryOperator<String> normalizer) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(normalizer.apply(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static String normalize(String text) {
+        String folded = text.toLowerCase(Locale.GERMAN)
+                .replace("ä", "ae")
+                .replace("ö", "oe")
+                .replace("ü", "ue")
+                .replace("ß", "ss");
+        return stripDiacritics(folded);
+    }
+
+    // Nur für den Index: ä → a usw., damit auch ohne Umlaut getippte Suchen ("mutze") treffen
+    private static String foldToBaseLetter(String text) {
+        return stripDiacritics(text.toLowerCase(Locale.GERMAN).replace("ß", "ss"));
+    }
+
+    private static String stripDiacritics(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    }
+}
@@ -1,53 +1,131 @@
 package edu.hm.cs.kreisel_backend.service;
 
+import edu.hm.cs.kreisel_backend.dto.CacheStats;
+import edu.hm.cs.kreisel_backend.dto.CursorPage;
+import edu.hm.cs.kreisel_backend.dto.ItemFacetCounts;
 import edu.hm.cs.kreisel_backend.model.Item;
 import edu.hm.cs.kreisel_backend.model.Item.*;
 import edu.hm.cs.kreisel_backend.repository.ItemRepository;
+import edu.hm.cs.kreisel_backend.repository.ItemSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int REINDEX_BATCH_SIZE = 1000;
+
     private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemFacetIndex facetIndex;
+    private final TopRatedItemsIndex topRatedItems;
+    private final ItemCache itemCache;
+    private final CatalogVersions catalogVersions;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+
+    // Haupt-Filtermethode: Filter und Suche laufen über die In-Memory-Indizes, aus der
+    // Datenbank wird nur noch die angefragte Seite geladen. Geblättert wird per Keyset
+    // über die id (cursor = letzte id der vorigen Seite).
+    public CursorPage<Item> filterItems(Location location, Boolean available, String searchQuery,
+                                        Gender gender, Category category, Subcategory subcategory, String size,
+                                        Long cursor, Integer limit) {
+        if (searchQuery != null && searchQuery.isBlank()) {
+            searchQuery = null;
+        }
+
+        int pageSize = normalizePageSize(limit);
+        // Eine id bzw. ein Item mehr holen, um zu wissen ob es eine nächste Seite gibt
+        if (facetIndex.isReady() && searchIndex.isReady()) {
+            Set<Long> matchingIds = searchQuery != null ? searchIndex.search(searchQuery) : null;
+            ItemFilter filter = new ItemFilter(location, available, gender, category, subcategory, null, size);
+            List<Long> ids = facetIndex.findIds(filter, matchingIds, cursor, pageSize + 1);
+            List<Long> pageIds = ids.subList(0, Math.min(ids.size(), pageSize));
+            List<Item> items = new ArrayList<>(itemCache.getAll(pageIds, this::loadItems).values());
+            items.sort(Comparator.comparing(Item::getId));
+            // Cursor aus den IDs des Index: zwischendurch gelöschte Items fehlen in items,
+            // dürfen das Blättern aber nicht beenden
+            String nextCursor = ids.size() > pageSize ? String.valueOf(pageIds.get(pageSize - 1)) : null;
+            return new CursorPage<>(items, nextCursor);
+        }
+
+        // Beim Start, solange die Indizes noch aufgebaut werden, filtert die Datenbank
+        Specification<Item> spec = ItemSpecifications.matchesFilter(
+                location, available, searchQuery, gender, category, subcategory, size);
+        if (cursor != null) {
+            spec = spec.and(ItemSpecifications.idGreaterThan(cursor));
+        }
+        List<Item> items = itemRepository.findFirstOrderedById(spec, pageSize + 1);
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(items, null);
+        }
+        List<Item> page = items.subList(0, pageSize);
+        return new CursorPage<>(page, String.valueOf(page.get(pageSize - 1).getId()));
+    }
 
-    // Haupt-Filtermethode
-    public List<Item> filterItems(Location location, Boolean available, String searchQuery,
-                                  Gender gender, Category category, Subcategory subcategory, String size) {
-        return itemRepository.findAll().stream()
-                .filter(item -> item.getLocation() == location)
-                .filter(item -> available == null || item.isAvailable() == available)
-                .filter(item -> matchesSearch(item, searchQuery))
-                .filter(item -> gender == null || item.getGender() == gender)
-                .filter(item -> category == null || item.getCategory() == category)
-                .filter(item -> subcategory == null || item.getSubcategory() == subcategory)
-                .filter(item -> size == null || (item.getSize() != null && item.getSize().equalsIgnoreCase(size)))
-                .toList();
+    // Zählungen für die Filter-Sidebar, ohne Item-Entities zu laden.
+    // null, solange die Indizes beim Start noch aufgebaut werden (der Controller antwortet dann mit 503)
+    public ItemFacetCounts getFacetCounts(Location location, Boolean available, String searchQuery,
+                                          Gender gender, Category category, Subcategory subcategory,
+                                          Zustand zustand, String size) {
+        if (!facetIndex.isReady() || !searchIndex.isReady()) {
+            return null;
+        }
+        Set<Long> matchingIds = null;
+        if (searchQuery != null && !searchQuery.isBlank()) {
+            matchingIds = searchIndex.search(searchQuery);
+        }
+        return facetIndex.countFacets(
+                new ItemFilter(location, available, gender, category, subcategory, zustand, size), matchingIds);
     }
 
-    private boolean matchesSearch(Item item, String searchQuery) {
-        if (searchQuery == null) return true;
-        String query = searchQuery.toLowerCase();
-        return item.getName().toLowerCase().contains(query) ||
-                (item.getBrand() != null && item.getBrand().toLowerCase().contains(query)) ||
-                (item.getDescription() != null && item.getDescription().toLowerCase().contains(query));
+    private int normalizePageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
+    private Map<Long, Item> loadItems(List<Long> ids) {
+        return itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
 
     public Item getItemById(Long id) {
-        return itemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
+        Item item = itemCache.get(id, key -> itemRepository.findById(key).orElse(null));
+        if (item == null) {
+            throw new RuntimeException("Item not found");
+        }
+        return item;
+    }
+
+    public CacheStats getCacheStats() {
+        return itemCache.stats();
     }
 
     public Item createItem(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemCache.put(saved);
+        searchIndex.index(saved);
+        facetIndex.index(saved);
+        // Version erst zum Schluss erhöhen, sonst kann ein GET alte Daten unter dem neuen ETag ausliefern
+        catalogVersions.itemChanged(saved.getId(), saved.getLocation());
+        return saved;
     }
 
     public Item updateItem(Long id, Item updated) {
-        Item existing = getItemById(id);
+        // Nicht über den Cache laden: gecachte Instanzen werden nicht verändert
+        Item existing = itemRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Item not found"));
+        Location previousLocation = existing.getLocation();
+        boolean previouslyAvailable = existing.isAvailable();
         existing.setName(updated.getName());
         existing.setSize(updated.getSize());
         existing.setDescription(updated.getDescription());
@@ -58,10 +136,58 @@ public class ItemService {
         existing.setCategory(updated.getCategory());
         existing.setSubcategory(updated.getSubcategory());
         existing.setZustand(updated.getZustand());
-        return itemRepository.save(existing);
+        Item saved = itemRepository.save(existing);
+        itemCache.put(saved);
+        if (previousLocation != saved.getLocation()) {
+            // Am alten Standort ist das Item nicht mehr ausleihbar
+            availabilityBroadcaster.publish(previousLocation, saved.getId(), false);
+            availabilityBroadcaster.publish(saved.getLocation(), saved.getId(), saved.isAvailable());
+        } else if (previouslyAvailable != saved.isAvailable()) {
+            availabilityBroadcaster.publish(saved.getLocation(), saved.getId(), saved.isAvailable());
+        }
+        searchIndex.index(saved);
+        facetIndex.index(saved);
+        topRatedItems.itemChanged(saved);
+        catalogVersions.itemChanged(saved.getId(), previousLocation, saved.getLocation());
+        return saved;
     }
 
     public void deleteItem(Long id) {
         itemRepository.deleteById(id);
+        itemCache.evict(id);
+        searchIndex.remove(id);
+        facetIndex.remove(id);
+        topRatedItems.remove(id);
+        catalogVersions.itemDeleted(id);
+    }
+
+    // Nach einem Massenimport: alle Items mit id > afterId seitenweise in die Indizes aufnehmen
+    public void itemsImported(long afterId) {
+        List<Item> batch;
+        do {
+            batch = itemRepository.findFirstOrderedById(
+                    ItemSpecifications.idGreaterThan(afterId), REINDEX_BATCH_SIZE);
+            for (Item item : batch) {
+                searchIndex.index(item);
+                facetIndex.index(item);
+                catalogVersions.itemChanged(item.getId(), item.getLocation());
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REINDEX_BATCH_SIZE);
+    }
+
+    // Wird von RentalService nach dem Ausleihen bzw. der Rückgabe aufgerufen
+    public void availabilityChanged(Item item) {
+        availabilityChanged(item.getId(), item.getLocation(), item.isAvailable());
+    }
+
+    // Für Sammel-Operationen, bei denen keine Item-Entities geladen werden
+    public void availabilityChanged(Long itemId, Location location, boolean available) {
+        itemCache.evict(itemId);
+        facetIndex.setAvailable(itemId, available);
+        catalogVersions.itemChanged(itemId, location);
+        availabilityBroadcaster.publish(location, itemId, available);
     }
 }
@@ -0,0 +1,109 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.repository.RentalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hält alle offenen Rentals nach Enddatum sortiert im Speicher. Überfällige Rentals
+ * sind damit immer der Anfang der Menge, ihre Abfrage kostet O(überfällig) statt
+ * O(alle Rentals). Wird von {@link RentalService} bei Ausleihe, Verlängerung und
+ * Rückgabe gepflegt und zusätzlich regelmäßig mit der Datenbank abgeglichen.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OverdueRentalTracker {
+
+    private final RentalRepository rentalRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableSet<OpenRental> openByEndDate = new ConcurrentSkipListSet<>();
+    private final Map<Long, OpenRental> openById = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        refresh();
+    }
+
+    // Abgleich mit der Datenbank (nur offene Rentals, über idx_rental_open_end)
+    @Scheduled(cron = "${kreisel.rentals.overdue-scan.cron:0 5 0 * * *}")
+    public void refresh() {
+        lock.lock();
+        try {
+            openByEndDate.clear();
+            openById.clear();
+            for (Object[] row : rentalRepository.findOpenRentalEndDates()) {
+                putLocked((Long) row[0], (LocalDate) row[1]);
+            }
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+
+        List<Long> overdue = getOverdueRentalIds(LocalDate.now());
+        if (!overdue.isEmpty()) {
+            log.info("{} überfällige Ausleihen: {}", overdue.size(), overdue);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Neue oder verlängerte Ausleihe
+    public void opened(Long rentalId, LocalDate endDate) {
+        lock.lock();
+        try {
+            putLocked(rentalId, endDate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void closed(Long rentalId) {
+        lock.lock();
+        try {
+            OpenRental removed = openById.remove(rentalId);
+            if (removed != null) {
+                openByEndDate.remove(removed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // IDs aller offenen Rentals mit Enddatum vor {today}, ältestes Enddatum zuerst
+    public List<Long> getOverdueRentalIds(LocalDate today) {
+        return openByEndDate.headSet(new OpenRental(today, Long.MIN_VALUE), false).stream()
+                .map(OpenRental::rentalId)
+                .toList();
+    }
+
+    private void putLocked(Long rentalId, LocalDate endDate) {
+        OpenRental previous = openById.put(rentalId, new OpenRental(endDate, rentalId));
+        if (previous != null) {
+            openByEndDate.remove(previous);
+        }
+        openByEndDate.add(new OpenRental(endDate, rentalId));
+    }
+
+    private record OpenRental(LocalDate endDate, Long rentalId) implements Comparable<OpenRental> {
+        @Override
+        public int compareTo(OpenRental other) {
+            int byDate = endDate.compareTo(other.endDate);
+            return byDate != 0 ? byDate : rentalId.compareTo(other.rentalId);
+        }
+    }
+}
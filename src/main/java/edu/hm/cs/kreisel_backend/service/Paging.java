@@ -0,0 +1,42 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+/**
+ * Baut aus den Query-Parametern page, size und sort ("feld" oder "feld,desc") einen
+ * {@link Pageable}. Sortiert werden darf nur nach freigegebenen Feldern, damit kein
+ * beliebiger Ausdruck in die ORDER BY-Klausel gelangt.
+ */
+final class Paging {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private Paging() {
+    }
+
+    static Pageable of(Integer page, Integer size, String sort, Set<String> sortableFields, Sort defaultSort) {
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        int pageSize = size == null || size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return PageRequest.of(pageNumber, pageSize, parseSort(sort, sortableFields, defaultSort));
+    }
+
+    private static Sort parseSort(String sort, Set<String> sortableFields, Sort defaultSort) {
+        if (sort == null || sort.isBlank()) {
+            return defaultSort;
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!sortableFields.contains(field)) {
+            throw new RuntimeException("Sortierung nach '" + field + "' nicht möglich");
+        }
+        Sort.Direction direction = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        // id als zweites Kriterium, damit die Reihenfolge über Seiten hinweg stabil bleibt
+        return Sort.by(direction, field).and(Sort.by("id"));
+    }
+}
@@ -1,17 +1,26 @@
 package edu.hm.cs.kreisel_backend.service;
 
+import edu.hm.cs.kreisel_backend.dto.BulkRentalResult;
+import edu.hm.cs.kreisel_backend.dto.PageResponse;
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
 import edu.hm.cs.kreisel_backend.model.Item;
 import edu.hm.cs.kreisel_backend.model.Rental;
 import edu.hm.cs.kreisel_backend.model.User;
 import edu.hm.cs.kreisel_backend.repository.ItemRepository;
 import edu.hm.cs.kreisel_backend.repository.RentalRepository;
+import edu.hm.cs.kreisel_backend.repository.RentalRepositoryCustom.Extension;
 import edu.hm.cs.kreisel_backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
 
 @Service
 @RequiredArgsConstructor
@@ -20,25 +29,47 @@ public class RentalService {
     private static final int MAX_ACTIVE_RENTALS = 5;
     private static final int MAX_RENTAL_DAYS = 90; // 3 Monate maximal
     private static final int EXTENSION_DAYS = 30; // Verlängerung um 30 Tage
+    private static final int MAX_CHECKOUT_ATTEMPTS = 4;
+    private static final long CHECKOUT_BACKOFF_MS = 10;
+    private static final int LOCK_STRIPES = 64;
+    public static final int MAX_BULK_SIZE = 500;
+    private static final Set<String> RENTAL_STATUSES = Set.of("ACTIVE", "OVERDUE", "RETURNED");
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "rentalDate", "endDate", "returnDate");
 
     private final RentalRepository rentalRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-
-    public List<Rental> getAllRentals() {
-        return rentalRepository.findAll();
+    private final ItemService itemService;
+    private final TransactionTemplate transactionTemplate;
+    private final OverdueRentalTracker overdueRentalTracker;
+
+    // Serialisiert Ausleihen pro User (Limit aktiver Ausleihen) und pro Item (Verfügbarkeit)
+    private final StripedLocks userLocks = new StripedLocks(LOCK_STRIPES);
+    private final StripedLocks itemLocks = new StripedLocks(LOCK_STRIPES);
+
+    // Admin-Übersicht: seitenweise, sortierbar und nach Status, Standort und Zeitraum filterbar
+    public PageResponse<RentalResponse> getAllRentals(Integer page, Integer size, String sort, String status,
+                                                      Item.Location location, LocalDate from, LocalDate to) {
+        if (status != null) {
+            status = status.toUpperCase();
+            if (!RENTAL_STATUSES.contains(status)) {
+                throw new RuntimeException("Ungültiger Status: " + status);
+            }
+        }
+        return PageResponse.from(rentalRepository.findResponses(status, location, from, to, LocalDate.now(),
+                Paging.of(page, size, sort, SORTABLE_FIELDS, Sort.by(Sort.Direction.DESC, "id"))));
     }
 
-    public List<Rental> getRentalsByUser(Long userId) {
-        return rentalRepository.findByUserId(userId);
+    public List<RentalResponse> getRentalsByUser(Long userId) {
+        return rentalRepository.findResponsesByUserId(userId, LocalDate.now());
     }
 
-    public List<Rental> getActiveRentalsByUser(Long userId) {
-        return rentalRepository.findByUserIdAndReturnDateIsNull(userId);
+    public List<RentalResponse> getActiveRentalsByUser(Long userId) {
+        return rentalRepository.findActiveResponsesByUserId(userId, LocalDate.now());
     }
 
-    public List<Rental> getHistoricalRentalsByUser(Long userId) {
-        return rentalRepository.findByUserIdAndReturnDateIsNotNull(userId);
+    public List<RentalResponse> getHistoricalRentalsByUser(Long userId) {
+        return rentalRepository.findHistoricalResponsesByUserId(userId, LocalDate.now());
     }
 
     public Optional<Rental> getActiveRentalForItem(Long itemId) {
@@ -51,6 +82,60 @@ public class RentalService {
     }
 
     public Rental rentItem(Long userId, Long itemId, LocalDate endDate) {
+        Rental rental = checkoutWithRetry(userId, itemId, endDate);
+
+        itemService.availabilityChanged(rental.getItem());
+        overdueRentalTracker.opened(rental.getId(), rental.getEndDate());
+        return rental;
+    }
+
+    // Die Locks gelten nur in dieser JVM; Version auf Item und der Unique-Constraint
+    // uq_rental_active_item sichern auch gegen parallele Instanzen ab.
+    private Rental checkoutWithRetry(Long userId, Long itemId, LocalDate endDate) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return lockedCheckout(userId, itemId, endDate);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_CHECKOUT_ATTEMPTS) {
+                    throw new RuntimeException("Item wird gerade bearbeitet, bitte erneut versuchen");
+                }
+                // Ohne Locks warten, sonst warten alle Ausleihen auf denselben Stripes mit
+                backoff(attempt);
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("Item ist bereits ausgeliehen");
+            }
+        }
+    }
+
+    private Rental lockedCheckout(Long userId, Long itemId, LocalDate endDate) {
+        // Immer erst User-, dann Item-Lock, damit keine Deadlocks entstehen.
+        // Die Locks werden erst nach dem Commit freigegeben.
+        Lock userLock = userLocks.get(userId);
+        Lock itemLock = itemLocks.get(itemId);
+        userLock.lock();
+        try {
+            itemLock.lock();
+            try {
+                return transactionTemplate.execute(status -> checkout(userId, itemId, endDate));
+            } finally {
+                itemLock.unlock();
+            }
+        } finally {
+            userLock.unlock();
+        }
+    }
+
+    private void backoff(int attempt) {
+        long delay = CHECKOUT_BACKOFF_MS << (attempt - 1);
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ausleihe abgebrochen");
+        }
+    }
+
+    private Rental checkout(Long userId, Long itemId, LocalDate endDate) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -79,8 +164,7 @@ public class RentalService {
             throw new RuntimeException("Item ist nicht verfügbar");
         }
 
-        List<Rental> activeRentals = getActiveRentalsByUser(userId);
-        if (activeRentals.size() >= MAX_ACTIVE_RENTALS) {
+        if (rentalRepository.countByUserIdAndReturnDateIsNull(userId) >= MAX_ACTIVE_RENTALS) {
             throw new RuntimeException("Maximale Anzahl aktiver Ausleihen (5) erreicht");
         }
 
@@ -138,32 +222,161 @@ public class RentalService {
         rental.setEndDate(newEndDate);
         rental.setExtended(true);
 
-        return rentalRepository.save(rental);
+        Rental saved = rentalRepository.save(rental);
+        overdueRentalTracker.opened(saved.getId(), saved.getEndDate());
+        return saved;
     }
 
     public Rental returnRental(Long rentalId) {
-        Rental rental = rentalRepository.findById(rentalId)
-                .orElseThrow(() -> new RuntimeException("Rental not found"));
+        Rental returned = transactionTemplate.execute(status -> {
+            Rental rental = rentalRepository.findById(rentalId)
+                    .orElseThrow(() -> new RuntimeException("Rental not found"));
 
-        if (rental.getReturnDate() != null) {
-            throw new RuntimeException("Rental ist bereits zurückgegeben");
-        }
+            if (rental.getReturnDate() != null) {
+                throw new RuntimeException("Rental ist bereits zurückgegeben");
+            }
 
-        rental.setReturnDate(LocalDate.now());
+            rental.setReturnDate(LocalDate.now());
 
-        // Item als verfügbar markieren
-        Item item = rental.getItem();
-        item.setAvailable(true);
-        itemRepository.save(item);
+            // Item als verfügbar markieren
+            Item item = rental.getItem();
+            item.setAvailable(true);
+            itemRepository.save(item);
 
-        return rentalRepository.save(rental);
+            return rentalRepository.save(rental);
+        });
+
+        itemService.availabilityChanged(returned.getItem());
+        overdueRentalTracker.closed(returned.getId());
+        return returned;
+    }
+
+    // Sammel-Rückgabe am Schalter: eine Transaktion, je ein JDBC-Batch für app_rental und app_item.
+    // Ergebnis pro id in der Reihenfolge der Anfrage; fehlgeschlagene ids brechen die anderen nicht ab.
+    public List<BulkRentalResult> returnRentals(List<Long> rentalIds) {
+        List<Long> ids = distinctIds(rentalIds);
+        LocalDate today = LocalDate.now();
+        Map<Long, Object[]> returned = new LinkedHashMap<>(); // rentalId -> Zustand aus findBulkStates
+        List<BulkRentalResult> results = transactionTemplate.execute(status -> {
+            Map<Long, Object[]> states = loadBulkStates(ids);
+            Map<Long, BulkRentalResult> resultById = new HashMap<>();
+            List<Long> candidates = new ArrayList<>();
+            for (Long id : ids) {
+                Object[] state = states.get(id);
+                if (state == null) {
+                    resultById.put(id, BulkRentalResult.failed(id, "Rental not found"));
+                } else if (state[4] != null) {
+                    resultById.put(id, BulkRentalResult.failed(id, "Rental ist bereits zurückgegeben"));
+                } else {
+                    candidates.add(id);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                int[] counts = rentalRepository.markReturned(candidates, today);
+                for (int i = 0; i < candidates.size(); i++) {
+                    Long id = candidates.get(i);
+                    if (updated(counts[i])) {
+                        resultById.put(id, BulkRentalResult.ok(id, null));
+                        returned.put(id, states.get(id));
+                    } else {
+                        resultById.put(id, BulkRentalResult.failed(id, "Rental wurde gleichzeitig geändert"));
+                    }
+                }
+                if (!returned.isEmpty()) {
+                    rentalRepository.markItemsAvailable(returned.values().stream().map(state -> (Long) state[1]).toList());
+                }
+            }
+            return ids.stream().map(resultById::get).toList();
+        });
+
+        returned.forEach((rentalId, state) -> {
+            itemService.availabilityChanged((Long) state[1], (Item.Location) state[6], true);
+            overdueRentalTracker.closed(rentalId);
+        });
+        return results;
+    }
+
+    // Sammel-Verlängerung mit denselben Regeln wie extendRental
+    public List<BulkRentalResult> extendRentals(List<Long> rentalIds) {
+        List<Long> ids = distinctIds(rentalIds);
+        List<Extension> extended = new ArrayList<>();
+        List<BulkRentalResult> results = transactionTemplate.execute(status -> {
+            Map<Long, Object[]> states = loadBulkStates(ids);
+            Map<Long, BulkRentalResult> resultById = new HashMap<>();
+            List<Extension> candidates = new ArrayList<>();
+            for (Long id : ids) {
+                Object[] state = states.get(id);
+                if (state == null) {
+                    resultById.put(id, BulkRentalResult.failed(id, "Rental not found"));
+                    continue;
+                }
+                LocalDate rentalDate = (LocalDate) state[2];
+                LocalDate endDate = (LocalDate) state[3];
+                LocalDate newEndDate = endDate.plusDays(EXTENSION_DAYS);
+                if (state[4] != null) {
+                    resultById.put(id, BulkRentalResult.failed(id, "Rental ist bereits zurückgegeben"));
+                } else if ((Boolean) state[5]) {
+                    resultById.put(id, BulkRentalResult.failed(id, "Verlängerung bereits genutzt"));
+                } else if (newEndDate.isAfter(rentalDate.plusDays(MAX_RENTAL_DAYS + EXTENSION_DAYS))) {
+                    resultById.put(id, BulkRentalResult.failed(id, "Verlängerung würde die maximale Ausleihdauer überschreiten"));
+                } else {
+                    candidates.add(new Extension(id, endDate, newEndDate));
+                }
+            }
+            if (!candidates.isEmpty()) {
+                int[] counts = rentalRepository.markExtended(candidates);
+                for (int i = 0; i < candidates.size(); i++) {
+                    Extension extension = candidates.get(i);
+                    if (updated(counts[i])) {
+                        resultById.put(extension.rentalId(), BulkRentalResult.ok(extension.rentalId(), extension.newEndDate()));
+                        extended.add(extension);
+                    } else {
+                        resultById.put(extension.rentalId(),
+                                BulkRentalResult.failed(extension.rentalId(), "Rental wurde gleichzeitig geändert"));
+                    }
+                }
+            }
+            return ids.stream().map(resultById::get).toList();
+        });
+
+        extended.forEach(e -> overdueRentalTracker.opened(e.rentalId(), e.newEndDate()));
+        return results;
+    }
+
+    private List<Long> distinctIds(List<Long> rentalIds) {
+        if (rentalIds == null || rentalIds.isEmpty()) {
+            throw new RuntimeException("Keine Rental-IDs angegeben");
+        }
+        List<Long> ids = rentalIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("Maximal " + MAX_BULK_SIZE + " Rentals pro Anfrage");
+        }
+        return ids;
+    }
+
+    private Map<Long, Object[]> loadBulkStates(List<Long> ids) {
+        Map<Long, Object[]> states = new HashMap<>();
+        for (Object[] row : rentalRepository.findBulkStates(ids)) {
+            states.put((Long) row[0], row);
+        }
+        return states;
     }
 
-    // Zusätzliche Methode: Überfällige Rentals finden
-    public List<Rental> getOverdueRentals() {
-        return rentalRepository.findAll().stream()
-                .filter(rental -> rental.getReturnDate() == null) // Noch nicht zurückgegeben
-                .filter(rental -> rental.getEndDate().isBefore(LocalDate.now())) // Überfällig
-                .toList();
+    // Treiber dürfen statt der Zeilenzahl SUCCESS_NO_INFO (-2) liefern, das zählt als geändert
+    private static boolean updated(int count) {
+        return count != 0;
+    }
+
+    // Überfällige Rentals: IDs aus dem OverdueRentalTracker, geladen werden nur diese
+    public List<RentalResponse> getOverdueRentals() {
+        LocalDate today = LocalDate.now();
+        if (!overdueRentalTracker.isReady()) {
+            return rentalRepository.findOverdueResponses(today);
+        }
+        List<Long> overdueIds = overdueRentalTracker.getOverdueRentalIds(today);
+        if (overdueIds.isEmpty()) {
+            return List.of();
+        }
+        return rentalRepository.findResponsesByIdIn(overdueIds, today);
     }
 }
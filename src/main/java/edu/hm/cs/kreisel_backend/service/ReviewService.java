@@ -1,25 +1,33 @@
 package edu.hm.cs.kreisel_backend.service;
 
+import edu.hm.cs.kreisel_backend.dto.CursorPage;
 import edu.hm.cs.kreisel_backend.dto.ItemRatingStats;
 import edu.hm.cs.kreisel_backend.dto.ReviewRequest;
 import edu.hm.cs.kreisel_backend.dto.ReviewResponse;
 import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.ItemRating;
 import edu.hm.cs.kreisel_backend.model.Rental;
 import edu.hm.cs.kreisel_backend.model.Review;
 import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.repository.ItemRatingRepository;
 import edu.hm.cs.kreisel_backend.repository.ItemRepository;
 import edu.hm.cs.kreisel_backend.repository.RentalRepository;
 import edu.hm.cs.kreisel_backend.repository.ReviewRepository;
 import edu.hm.cs.kreisel_backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,8 +37,15 @@ public class ReviewService {
     private final RentalRepository rentalRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemRatingRepository itemRatingRepository;
+    private final TopRatedItemsIndex topRatedItems;
+    private final CatalogVersions catalogVersions;
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public static final int MAX_STATS_BATCH_SIZE = 200;
+    public static final int DEFAULT_TOP_ITEMS = 10;
+    public static final int MAX_TOP_ITEMS = 100;
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
 
     @Transactional
     public ReviewResponse createReview(Long rentalId, ReviewRequest request) {
@@ -50,9 +65,36 @@ public class ReviewService {
         review.setComment(request.getComment());
 
         review = reviewRepository.save(review);
+        ItemRating aggregate = lockRatingAggregate(review.getItem().getId());
+        aggregate.addRating(review.getRating());
+        ratingChangedAfterCommit(review.getItem(), aggregate);
         return mapToResponse(review);
     }
 
+    // Aggregat-Zeile des Items anlegen (falls nötig) und bis zum Commit sperren
+    private ItemRating lockRatingAggregate(Long itemId) {
+        itemRatingRepository.insertIfAbsent(itemId);
+        return itemRatingRepository.findForUpdate(itemId)
+                .orElseThrow(() -> new RuntimeException("Rating-Statistik nicht gefunden"));
+    }
+
+    // Rangliste und Stats-ETag erst nach erfolgreichem Commit anpassen, bei Rollback bleiben sie unverändert
+    private void ratingChangedAfterCommit(Item item, ItemRating aggregate) {
+        Long itemId = item.getId();
+        Item.Location location = item.getLocation();
+        Item.Category category = item.getCategory();
+        int reviewCount = aggregate.getReviewCount();
+        long ratingSum = aggregate.getRatingSum();
+        long revision = aggregate.getRevision();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                topRatedItems.ratingChanged(itemId, location, category, reviewCount, ratingSum, revision);
+                catalogVersions.ratingsChanged(itemId);
+            }
+        });
+    }
+
     private void validateReviewCreation(Rental rental) {
         // Prüfen ob Rental zurückgegeben wurde
         if (rental.getReturnDate() == null) {
@@ -65,6 +107,7 @@ public class ReviewService {
         }
     }
 
+    @Transactional
     public ReviewResponse updateReview(Long reviewId, ReviewRequest request, Long userId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review nicht gefunden"));
@@ -74,13 +117,21 @@ public class ReviewService {
             throw new RuntimeException("Nicht berechtigt, diese Review zu bearbeiten");
         }
 
+        Integer previousRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
         review = reviewRepository.save(review);
+        if (!previousRating.equals(review.getRating())) {
+            ItemRating aggregate = lockRatingAggregate(review.getItem().getId());
+            aggregate.removeRating(previousRating);
+            aggregate.addRating(review.getRating());
+            ratingChangedAfterCommit(review.getItem(), aggregate);
+        }
         return mapToResponse(review);
     }
 
+    @Transactional
     public void deleteReview(Long reviewId, Long userId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review nicht gefunden"));
@@ -91,71 +142,126 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        ItemRating aggregate = lockRatingAggregate(review.getItem().getId());
+        aggregate.removeRating(review.getRating());
+        ratingChangedAfterCommit(review.getItem(), aggregate);
     }
 
-    public List<ReviewResponse> getReviewsByItem(Long itemId) {
-        return reviewRepository.findByItemIdOrderByCreatedAtDesc(itemId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    // Reviews eines Items seitenweise, neueste zuerst (cursor = nextCursor der vorigen Seite)
+    public CursorPage<ReviewResponse> getReviewsByItem(Long itemId, String cursor, Integer limit) {
+        Cursor after = decodeCursor(cursor);
+        int pageSize = normalizePageSize(limit);
+        // Ein Review mehr laden, um zu wissen ob es eine nächste Seite gibt
+        PageRequest firstRows = PageRequest.ofSize(pageSize + 1);
+        return toPage(after == null
+                ? reviewRepository.findResponsesByItemId(itemId, firstRows)
+                : reviewRepository.findResponsesByItemIdBefore(itemId, after.createdAt(), after.id(), firstRows),
+                pageSize);
     }
 
-    public List<ReviewResponse> getReviewsByUser(Long userId) {
-        return reviewRepository.findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<ReviewResponse> getReviewsByUser(Long userId, String cursor, Integer limit) {
+        Cursor after = decodeCursor(cursor);
+        int pageSize = normalizePageSize(limit);
+        PageRequest firstRows = PageRequest.ofSize(pageSize + 1);
+        return toPage(after == null
+                ? reviewRepository.findResponsesByUserId(userId, firstRows)
+                : reviewRepository.findResponsesByUserIdBefore(userId, after.createdAt(), after.id(), firstRows),
+                pageSize);
     }
 
-    public ReviewResponse getReviewByRental(Long rentalId) {
-        Review review = reviewRepository.findByRentalId(rentalId)
-                .orElseThrow(() -> new RuntimeException("Review nicht gefunden"));
-        return mapToResponse(review);
+    private int normalizePageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
-    public ItemRatingStats getItemRatingStats(Long itemId) {
-        ItemRatingStats stats = new ItemRatingStats();
+    private CursorPage<ReviewResponse> toPage(List<ReviewResponse> reviews, int pageSize) {
+        if (reviews.size() <= pageSize) {
+            return new CursorPage<>(reviews, null);
+        }
+        List<ReviewResponse> page = reviews.subList(0, pageSize);
+        ReviewResponse last = page.get(pageSize - 1);
+        return new CursorPage<>(page, encodeCursor(new Cursor(last.getCreatedAtTimestamp(), last.getId())));
+    }
 
-        // Durchschnittliche Bewertung
-        Double avgRating = reviewRepository.findAverageRatingByItemId(itemId);
-        stats.setAverageRating(avgRating != null ? Math.round(avgRating * 100.0) / 100.0 : 0.0);
+    // Cursor-Token: Base64 von "createdAt|id" der letzten Review der vorigen Seite
+    private record Cursor(LocalDateTime createdAt, Long id) {
+    }
 
-        // Gesamtanzahl Reviews
-        Integer totalReviews = reviewRepository.countReviewsByItemId(itemId);
-        stats.setTotalReviews(totalReviews != null ? totalReviews : 0);
+    private String encodeCursor(Cursor cursor) {
+        String raw = cursor.createdAt() + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null = erste Seite
+    private Cursor decodeCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Ungültiger Cursor");
+        }
+    }
+
+    public ReviewResponse getReviewByRental(Long rentalId) {
+        return reviewRepository.findResponseByRentalId(rentalId)
+                .orElseThrow(() -> new RuntimeException("Review nicht gefunden"));
+    }
 
-        // Rating-Verteilung
-        List<Object[]> distribution = reviewRepository.findRatingDistributionByItemId(itemId);
-        Map<Integer, Integer> ratingCounts = new HashMap<>();
+    public ItemRatingStats getItemRatingStats(Long itemId) {
+        return getItemRatingStats(List.of(itemId)).get(itemId);
+    }
 
-        // Initialisiere alle Ratings mit 0
-        for (int i = 1; i <= 5; i++) {
-            ratingCounts.put(i, 0);
+    // Statistiken für viele Items (z. B. Listenseiten) per Primärschlüssel aus app_item_rating
+    public Map<Long, ItemRatingStats> getItemRatingStats(Collection<Long> itemIds) {
+        if (itemIds.size() > MAX_STATS_BATCH_SIZE) {
+            throw new RuntimeException("Maximal " + MAX_STATS_BATCH_SIZE + " Items pro Anfrage");
         }
 
-        // Fülle die tatsächlichen Werte
-        for (Object[] row : distribution) {
-            Integer rating = (Integer) row[0];
-            Long count = (Long) row[1];
-            ratingCounts.put(rating, count.intValue());
+        // Items ohne Reviews bekommen leere Statistiken
+        Map<Long, ItemRatingStats> statsByItem = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            statsByItem.put(itemId, toStats(new ItemRating()));
+        }
+        if (itemIds.isEmpty()) {
+            return statsByItem;
         }
 
-        stats.setRating1Count(ratingCounts.get(1));
-        stats.setRating2Count(ratingCounts.get(2));
-        stats.setRating3Count(ratingCounts.get(3));
-        stats.setRating4Count(ratingCounts.get(4));
-        stats.setRating5Count(ratingCounts.get(5));
+        for (ItemRating aggregate : itemRatingRepository.findAllById(itemIds)) {
+            statsByItem.put(aggregate.getItemId(), toStats(aggregate));
+        }
+        return statsByItem;
+    }
 
+    private ItemRatingStats toStats(ItemRating aggregate) {
+        ItemRatingStats stats = new ItemRatingStats();
+        stats.setAverageRating(Math.round(aggregate.getAverageRating() * 100.0) / 100.0);
+        stats.setTotalReviews(aggregate.getReviewCount());
+        stats.setRating1Count(aggregate.getRating1Count());
+        stats.setRating2Count(aggregate.getRating2Count());
+        stats.setRating3Count(aggregate.getRating3Count());
+        stats.setRating4Count(aggregate.getRating4Count());
+        stats.setRating5Count(aggregate.getRating5Count());
         return stats;
     }
 
-    public List<Long> getTopRatedItemIds(Integer minReviews) {
+    // Die k am besten bewerteten Items, optional pro Standort/Kategorie und mit Bayes-Durchschnitt.
+    // null, solange die Rangliste beim Start noch aufgebaut wird (der Controller antwortet dann mit 503)
+    public List<Long> getTopRatedItemIds(Integer k, Item.Location location, Item.Category category,
+                                         Integer minReviews, boolean bayesian) {
+        if (k == null || k < 1) k = DEFAULT_TOP_ITEMS;
         if (minReviews == null) minReviews = 1;
 
-        return reviewRepository.findTopRatedItems(minReviews)
-                .stream()
-                .map(row -> (Long) row[0])
-                .collect(Collectors.toList());
+        if (!topRatedItems.isReady()) {
+            return null;
+        }
+        return topRatedItems.top(Math.min(k, MAX_TOP_ITEMS), location, category, minReviews, bayesian);
     }
 
     public boolean canUserReviewRental(Long rentalId, Long userId) {
@@ -173,18 +279,8 @@ public class ReviewService {
     }
 
     private ReviewResponse mapToResponse(Review review) {
-        ReviewResponse response = new ReviewResponse();
-        response.setId(review.getId());
-        response.setUserId(review.getUser().getId());
-        response.setUserFullName(review.getUser().getFullName());
-        response.setItemId(review.getItem().getId());
-        response.setItemName(review.getItem().getName());
-        response.setRentalId(review.getRental().getId());
-        response.setRating(review.getRating());
-        response.setComment(review.getComment());
-        response.setCreatedAt(review.getCreatedAt().format(FORMATTER));
-        response.setUpdatedAt(review.getUpdatedAt() != null ?
-                review.getUpdatedAt().format(FORMATTER) : null);
-        return response;
+        return new ReviewResponse(review.getId(), review.getUser().getId(), review.getUser().getFullName(),
+                review.getItem().getId(), review.getItem().getName(), review.getRental().getId(),
+                review.getRating(), review.getComment(), review.getCreatedAt(), review.getUpdatedAt());
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feste Anzahl an Locks, auf die beliebig viele Schlüssel per Hash verteilt werden.
+ * Zwei Schlüssel können sich einen Stripe teilen; das kostet höchstens Parallelität,
+ * nie Korrektheit.
+ */
+class StripedLocks {
+
+    private final Lock[] stripes;
+
+    StripedLocks(int count) {
+        stripes = new Lock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    Lock get(Object key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+}
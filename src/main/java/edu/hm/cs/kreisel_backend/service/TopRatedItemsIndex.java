@@ -0,0 +1,228 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.Item.Category;
+import edu.hm.cs.kreisel_backend.model.Item.Location;
+import edu.hm.cs.kreisel_backend.repository.ItemRatingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Rangliste der bewerteten Items, nach Bewertung absteigend sortiert. Pro Segment
+ * (alle, Standort, Kategorie, Standort + Kategorie) und pro Ranking (Durchschnitt,
+ * Bayes-Durchschnitt) gibt es eine sortierte Menge, die Top-k sind also einfach
+ * ihre ersten k Einträge. Wird von {@link ReviewService} nach jeder Review-Änderung
+ * und von {@link ItemService} bei Änderung oder Löschung eines Items gepflegt.
+ * Statistiken werden nur übernommen, wenn ihre Revision neuer ist als die bekannte:
+ * die afterCommit-Callbacks zweier Reviews können in beliebiger Reihenfolge ankommen.
+ * <p>
+ * Jede Menge enthält nur Items ab einer Mindestanzahl an Reviews (konfigurierte Stufen),
+ * damit Items unter der Schwelle beim Lesen nicht übersprungen werden müssen.
+ * <p>
+ * Der Bayes-Durchschnitt zieht Items mit wenigen Reviews zum Prior-Mittelwert:
+ * {@code (weight * priorMean + ratingSum) / (weight + reviewCount)}.
+ */
+@Component
+public class TopRatedItemsIndex {
+
+    private final ItemRatingRepository itemRatingRepository;
+    private final double priorMean;
+    private final double priorWeight;
+    private final int[] minReviewLevels;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, RatedItem> itemsById = new ConcurrentHashMap<>();
+    // Zuletzt übernommene Revision pro Item, auch für Items ohne Reviews
+    private final Map<Long, Long> revisions = new HashMap<>();
+    private final Map<Segment, NavigableSet<Ranked>> byAverage = new ConcurrentHashMap<>();
+    private final Map<Segment, NavigableSet<Ranked>> byBayesian = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public TopRatedItemsIndex(ItemRatingRepository itemRatingRepository,
+                              @Value("${kreisel.reviews.top-items.prior-mean:3.0}") double priorMean,
+                              @Value("${kreisel.reviews.top-items.prior-weight:5}") double priorWeight,
+                              @Value("${kreisel.reviews.top-items.min-review-levels:1,3,5,10,25}") int[] minReviewLevels) {
+        this.itemRatingRepository = itemRatingRepository;
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+        // Stufe 1 gibt es immer, sie enthält alle bewerteten Items
+        this.minReviewLevels = IntStream.concat(IntStream.of(1), Arrays.stream(minReviewLevels))
+                .filter(level -> level >= 1)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = itemRatingRepository.findRatedItemSegments();
+        lock.lock();
+        try {
+            // Kein clear: Callbacks, die während der Abfrage eingetroffen sind, haben die neuere Revision
+            for (Object[] row : rows) {
+                applyLocked((Long) row[0], (Location) row[1], (Category) row[2],
+                        ((Number) row[3]).intValue(), ((Number) row[4]).longValue(), ((Number) row[5]).longValue());
+            }
+            ready = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Neue Statistik eines Items nach Anlegen, Ändern oder Löschen einer Review
+    public void ratingChanged(Long itemId, Location location, Category category, int reviewCount, long ratingSum,
+                              long revision) {
+        lock.lock();
+        try {
+            applyLocked(itemId, location, category, reviewCount, ratingSum, revision);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Standort oder Kategorie eines Items können sich geändert haben
+    public void itemChanged(Item item) {
+        lock.lock();
+        try {
+            RatedItem previous = itemsById.get(item.getId());
+            if (previous != null && (previous.location() != item.getLocation()
+                    || previous.category() != item.getCategory())) {
+                removeLocked(item.getId());
+                putLocked(new RatedItem(item.getId(), item.getLocation(), item.getCategory(),
+                        previous.reviewCount(), previous.ratingSum()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.lock();
+        try {
+            // Gelöschtes Item: auch verspätete Callbacks dürfen es nicht wieder aufnehmen
+            revisions.put(itemId, Long.MAX_VALUE);
+            removeLocked(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Die {@code k} am besten bewerteten Items des Segments mit mindestens {@code minReviews}
+     * Reviews. {@code location} bzw. {@code category} null heißt: nicht einschränken.
+     * Für konfigurierte Stufen kostet das O(k); andere Werte lesen ab der nächstkleineren
+     * Stufe und überspringen nur die Items zwischen den beiden Schwellen.
+     */
+    public List<Long> top(int k, Location location, Category category, int minReviews, boolean bayesian) {
+        int level = levelFor(minReviews);
+        NavigableSet<Ranked> ranking = (bayesian ? byBayesian : byAverage).get(new Segment(location, category, level));
+        if (ranking == null) {
+            return List.of();
+        }
+        List<Long> result = new ArrayList<>(k);
+        for (Ranked entry : ranking) {
+            if (result.size() >= k) {
+                break;
+            }
+            if (level == minReviews || entry.reviewCount() >= minReviews) {
+                result.add(entry.itemId());
+            }
+        }
+        return result;
+    }
+
+    // Größte konfigurierte Stufe <= minReviews
+    private int levelFor(int minReviews) {
+        int level = minReviewLevels[0];
+        for (int candidate : minReviewLevels) {
+            if (candidate > minReviews) {
+                break;
+            }
+            level = candidate;
+        }
+        return level;
+    }
+
+    private void applyLocked(Long itemId, Location location, Category category, int reviewCount, long ratingSum,
+                             long revision) {
+        Long known = revisions.get(itemId);
+        if (known != null && known >= revision) {
+            return;
+        }
+        revisions.put(itemId, revision);
+        removeLocked(itemId);
+        if (reviewCount > 0) {
+            putLocked(new RatedItem(itemId, location, category, reviewCount, ratingSum));
+        }
+    }
+
+    private void putLocked(RatedItem item) {
+        itemsById.put(item.itemId(), item);
+        Ranked average = new Ranked((double) item.ratingSum() / item.reviewCount(), item.reviewCount(), item.itemId());
+        Ranked bayesian = new Ranked(bayesianAverage(item), item.reviewCount(), item.itemId());
+        for (Segment segment : item.segments(minReviewLevels)) {
+            byAverage.computeIfAbsent(segment, s -> new ConcurrentSkipListSet<>()).add(average);
+            byBayesian.computeIfAbsent(segment, s -> new ConcurrentSkipListSet<>()).add(bayesian);
+        }
+    }
+
+    private void removeLocked(Long itemId) {
+        RatedItem item = itemsById.remove(itemId);
+        if (item == null) {
+            return;
+        }
+        Ranked average = new Ranked((double) item.ratingSum() / item.reviewCount(), item.reviewCount(), item.itemId());
+        Ranked bayesian = new Ranked(bayesianAverage(item), item.reviewCount(), item.itemId());
+        for (Segment segment : item.segments(minReviewLevels)) {
+            byAverage.get(segment).remove(average);
+            byBayesian.get(segment).remove(bayesian);
+        }
+    }
+
+    private double bayesianAverage(RatedItem item) {
+        return (priorWeight * priorMean + item.ratingSum()) / (priorWeight + item.reviewCount());
+    }
+
+    // minReviews: Stufe, ab der ein Item in der Menge steht
+    private record Segment(Location location, Category category, int minReviews) {
+    }
+
+    private record RatedItem(Long itemId, Location location, Category category, int reviewCount, long ratingSum) {
+        List<Segment> segments(int[] levels) {
+            List<Segment> segments = new ArrayList<>();
+            for (int level : levels) {
+                if (level > reviewCount) {
+                    break;
+                }
+                segments.add(new Segment(null, null, level));
+                segments.add(new Segment(location, null, level));
+                segments.add(new Segment(null, category, level));
+                segments.add(new Segment(location, category, level));
+            }
+            return segments;
+        }
+    }
+
+    // Höchster Score zuerst, bei Gleichstand mehr Reviews, dann kleinere id
+    private record Ranked(double score, int reviewCount, Long itemId) implements Comparable<Ranked> {
+        @Override
+        public int compareTo(Ranked other) {
+            int byScore = Double.compare(other.score, score);
+            if (byScore != 0) return byScore;
+            int byCount = Integer.compare(other.reviewCount, reviewCount);
+            return byCount != 0 ? byCount : itemId.compareTo(other.itemId);
+        }
+    }
+}
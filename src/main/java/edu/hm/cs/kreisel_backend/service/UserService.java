@@ -1,23 +1,40 @@
 package edu.hm.cs.kreisel_backend.service;
 
-import edu.hm.cs.kreisel_backend.model.Rental;
+import edu.hm.cs.kreisel_backend.dto.PageResponse;
+import edu.hm.cs.kreisel_backend.dto.RentalResponse;
+import edu.hm.cs.kreisel_backend.dto.UserResponse;
 import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.repository.RentalRepository;
 import edu.hm.cs.kreisel_backend.repository.UserRepository;
+import edu.hm.cs.kreisel_backend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final RentalRepository rentalRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "fullName", "email", "role");
+
+    // Admin-Übersicht: seitenweise, sortierbar, optional nach Rolle und Name/E-Mail gefiltert
+    public PageResponse<UserResponse> getAllUsers(Integer page, Integer size, String sort,
+                                                  User.Role role, String search) {
+        String pattern = search != null && !search.isBlank()
+                ? "%" + search.trim().toLowerCase(Locale.ROOT) + "%" : null;
+        return PageResponse.from(userRepository.findResponses(role, pattern,
+                Paging.of(page, size, sort, SORTABLE_FIELDS, Sort.by("id"))));
     }
 
     public User getUserById(Long id) {
@@ -30,9 +47,12 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<Rental> getRentalsByUserId(Long userId) {
-        User user = getUserById(userId);
-        return user.getRentals();
+    // Per Projektion statt über die lazy User.rentals-Collection
+    public List<RentalResponse> getRentalsByUserId(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        return rentalRepository.findResponsesByUserId(userId, LocalDate.now());
     }
 
     public User createUser(User user) {
@@ -51,6 +71,7 @@ public class UserService {
 
     public User updateUser(Long id, User updatedUser) {
         User existing = getUserById(id);
+        String previousEmail = existing.getEmail();
         existing.setFullName(updatedUser.getFullName());
         existing.setEmail(updatedUser.getEmail());
 
@@ -60,10 +81,16 @@ public class UserService {
         }
 
         existing.setRole(updatedUser.getRole());
-        return userRepository.save(existing);
+        User saved = userRepository.save(existing);
+
+        // Gecachte Principals (Rolle, E-Mail, Passwort) sind jetzt veraltet
+        principalCache.evict(previousEmail);
+        principalCache.evict(saved.getEmail());
+        return saved;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        principalCache.evictUser(id);
     }
 }
@@ -1,6 +1,13 @@
 -- schema.sql
+-- IDs kommen aus Sequenzen (INCREMENT BY = allocationSize der Entities, Hibernate nutzt den
+-- Pooled-Optimizer). Inserts ohne id - z. B. die Beispieldaten unten - ziehen per DEFAULT ebenfalls daraus.
+CREATE SEQUENCE app_user_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE app_item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE app_rental_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE app_review_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE app_user (
-                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          id BIGINT DEFAULT NEXT VALUE FOR app_user_seq PRIMARY KEY,
                           full_name VARCHAR(255),
                           email VARCHAR(255) UNIQUE,
                           password VARCHAR(255),
@@ -8,7 +15,7 @@ CREATE TABLE app_user (
 );
 
 CREATE TABLE app_item (
-                          id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                          id BIGINT DEFAULT NEXT VALUE FOR app_item_seq PRIMARY KEY,
                           name VARCHAR(255),
                           size VARCHAR(50),
                           available BOOLEAN DEFAULT TRUE,
@@ -18,28 +25,77 @@ CREATE TABLE app_item (
                           gender VARCHAR(50),
                           category VARCHAR(50),
                           subcategory VARCHAR(50),
-                          zustand VARCHAR(50)
+                          zustand VARCHAR(50),
+                          version BIGINT DEFAULT 0 NOT NULL
 );
 
+-- Filter aus GET /api/items: location ist immer gesetzt, der Rest optional
+CREATE INDEX idx_item_location_available_category ON app_item (location, available, category, subcategory);
+
 CREATE TABLE app_rental (
-                            id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                            id BIGINT DEFAULT NEXT VALUE FOR app_rental_seq PRIMARY KEY,
                             rental_date DATE,
                             end_date DATE,
                             return_date DATE,
                             extended BOOLEAN DEFAULT FALSE,
                             user_id BIGINT,
                             item_id BIGINT,
+                            -- item_id solange nicht zurückgegeben, sonst NULL (NULLs sind im Unique-Index erlaubt)
+                            active_item_id BIGINT GENERATED ALWAYS AS (CASE WHEN return_date IS NULL THEN item_id END),
                             CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES app_user(id),
-                            CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES app_item(id)
+                            CONSTRAINT fk_item FOREIGN KEY (item_id) REFERENCES app_item(id),
+                            -- Höchstens eine offene Ausleihe pro Item
+                            CONSTRAINT uq_rental_active_item UNIQUE (active_item_id)
+);
+
+-- Offene (return_date IS NULL) und überfällige Rentals
+CREATE INDEX idx_rental_open_end ON app_rental (return_date, end_date);
+-- Admin-Übersicht: Filter nach Zeitraum
+CREATE INDEX idx_rental_rental_date ON app_rental (rental_date);
+
+CREATE TABLE app_review (
+                            id BIGINT DEFAULT NEXT VALUE FOR app_review_seq PRIMARY KEY,
+                            user_id BIGINT NOT NULL,
+                            item_id BIGINT NOT NULL,
+                            rental_id BIGINT NOT NULL UNIQUE,
+                            rating INT NOT NULL,
+                            comment VARCHAR(1000),
+                            created_at TIMESTAMP NOT NULL,
+                            updated_at TIMESTAMP,
+                            CONSTRAINT fk_review_user FOREIGN KEY (user_id) REFERENCES app_user(id),
+                            CONSTRAINT fk_review_item FOREIGN KEY (item_id) REFERENCES app_item(id),
+                            CONSTRAINT fk_review_rental FOREIGN KEY (rental_id) REFERENCES app_rental(id)
 );
 
+-- Review-Feeds pro Item bzw. User, neueste zuerst (Keyset über created_at, id)
+CREATE INDEX idx_review_item_created ON app_review (item_id, created_at, id);
+CREATE INDEX idx_review_user_created ON app_review (user_id, created_at, id);
+
+-- Pro Item nachgeführte Rating-Statistik (siehe ReviewService)
+CREATE TABLE app_item_rating (
+                                 item_id BIGINT PRIMARY KEY,
+                                 review_count INT DEFAULT 0 NOT NULL,
+                                 rating_sum BIGINT DEFAULT 0 NOT NULL,
+                                 average_rating DOUBLE DEFAULT 0 NOT NULL,
+                                 rating1_count INT DEFAULT 0 NOT NULL,
+                                 rating2_count INT DEFAULT 0 NOT NULL,
+                                 rating3_count INT DEFAULT 0 NOT NULL,
+                                 rating4_count INT DEFAULT 0 NOT NULL,
+                                 rating5_count INT DEFAULT 0 NOT NULL,
+                                 revision BIGINT DEFAULT 0 NOT NULL,
+                                 CONSTRAINT fk_item_rating_item FOREIGN KEY (item_id) REFERENCES app_item(id) ON DELETE CASCADE
+);
+
+-- Top-Items: sortiert nach Durchschnitt, gefiltert nach Mindestanzahl
+CREATE INDEX idx_item_rating_average ON app_item_rating (average_rating, review_count);
+
 -- data.sql
--- 👤 Beispiel-User (OHNE id - lass AUTO_INCREMENT arbeiten!)
+-- 👤 Beispiel-User (OHNE id - die Sequenz vergibt sie)
 INSERT INTO app_user (full_name, email, password, role) VALUES
                                                             ('Anna Admin', 'admin@hm.edu', 'admin123', 'ADMIN'),
                                                             ('Ben Benutzer', 'ben@hm.edu', 'benpass', 'USER');
 
--- 🎽 Beispiel-Items (OHNE id - lass AUTO_INCREMENT arbeiten!)
+-- 🎽 Beispiel-Items (OHNE id - die Sequenz vergibt sie)
 INSERT INTO app_item (name, size, available, description, brand, location, gender, category, subcategory, zustand)
 VALUES
     ('Winterjacke', 'L', TRUE, 'Warme Winterjacke für Damen', 'North Face', 'LOTHSTRASSE', 'DAMEN', 'KLEIDUNG', 'JACKEN', 'NEU'),
@@ -48,7 +104,7 @@ VALUES
     ('Flasche', '1.5L', TRUE, 'BPA-frei', 'Nalgene', 'PASING', 'UNISEX', 'EQUIPMENT', 'FLASCHEN', 'NEU'),
     ('Handschuhe', 'S', TRUE, 'Winddicht', 'Reusch', 'LOTHSTRASSE', 'DAMEN', 'ACCESSOIRES', 'HANDSCHUHE', 'NEU');
 
--- 📦 Beispiel-Rental (OHNE id - lass AUTO_INCREMENT arbeiten!)
+-- 📦 Beispiel-Rental (OHNE id - die Sequenz vergibt sie)
 -- Da wir nicht wissen welche IDs die User/Items bekommen haben, verwenden wir Subqueries
 INSERT INTO app_rental (rental_date, end_date, return_date, extended, user_id, item_id)
 VALUES (
@@ -0,0 +1,125 @@
+package edu.hm.cs.kreisel_backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Lasttest für den Vergleich Plattform-Threads gegen virtuelle Threads. Läuft nur auf Anfrage,
+ * jeweils einmal pro Modus, und gibt Durchsatz und p99 aus:
+ * <pre>
+ * mvn test -Dtest=RequestThroughputLoadTest -Dkreisel.loadtest=true
+ * mvn test -Dtest=RequestThroughputLoadTest -Dkreisel.loadtest=true -Dspring.threads.virtual.enabled=true
+ * </pre>
+ * Der zweite Lauf braucht Java 21; der Test selbst kommt mit Java 17 aus, die Clients laufen auf
+ * Plattform-Threads. Mit {@code -Djdk.tracePinnedThreads=short} (Java 21) meldet die JVM zusätzlich
+ * Stellen, an denen ein virtueller Thread seinen Träger-Thread blockiert. Eigene Datenbank und
+ * eigener Kontext, beide werden nach dem Test verworfen.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "kreisel.loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_ON_EXIT=FALSE")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class RequestThroughputLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void measureThroughputAndP99() throws Exception {
+        String token = registerAndGetToken();
+        // Katalogseite (Indizes + Cache) und /me (JWT-Filter + User aus der Datenbank) im Wechsel
+        List<HttpRequest> requests = List.of(
+                authorized(token, "/api/items?location=PASING"),
+                authorized(token, "/api/users/me"));
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(CLIENTS * REQUESTS_PER_CLIENT));
+        long start = System.nanoTime();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<Void> response = client.send(requests.get(i % requests.size()),
+                                HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - requestStart);
+                        assertEquals(200, response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2) / 1_000_000;
+        long p99 = sorted.get((int) (sorted.size() * 0.99)) / 1_000_000;
+        log.info("{}: {} Requests, {} Requests/s, p50 {} ms, p99 {} ms",
+                virtualThreads ? "Virtuelle Threads" : "Plattform-Threads",
+                sorted.size(), Math.round(sorted.size() * 1e9 / elapsedNanos), p50, p99);
+        assertEquals(CLIENTS * REQUESTS_PER_CLIENT, sorted.size());
+    }
+
+    private String registerAndGetToken() throws Exception {
+        String body = "{\"fullName\":\"Lasttest\",\"email\":\"lasttest@hm.edu\",\"password\":\"lasttest123\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        JsonNode json = objectMapper.readTree(response.body());
+        return json.get("token").asText();
+    }
+
+    private HttpRequest authorized(String token, String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,127 @@
+package edu.hm.cs.kreisel_backend.repository;
+
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.service.RentalService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Misst Statements und Durchsatz beim Anlegen vieler Entities; mit IDENTITY-IDs wäre
+// jeder Insert ein eigenes Statement samt Rundreise für den generierten Schlüssel.
+// Eigene Datenbank und eigener Kontext: die Testdaten gehen an ItemService vorbei
+// (Indizes, Caches) und dürfen die übrigen Tests nicht erreichen.
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batchinsert;DB_CLOSE_ON_EXIT=FALSE")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BatchInsertBenchmarkTest {
+
+    private static final int ITEMS = 1000;
+    private static final int USERS = 40;
+    private static final int RENTALS_PER_USER = 5;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void bulkItemInsertIsBatched() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(newItem("Benchmark-Item-" + i));
+        }
+
+        statistics.clear();
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("{} Items in {} ms ({} Statements)", ITEMS, elapsedMs, statements);
+
+        assertEquals(ITEMS, statistics.getEntityInsertCount());
+        // 1000 / 50 Insert-Batches + 1000 / 50 Sequenzabrufe, ein paar Statements Spielraum
+        assertTrue(statements <= 2 * ITEMS / 50 + 5, "Inserts wurden nicht gebündelt: " + statements);
+    }
+
+    @Test
+    void rentalCreationThroughput() {
+        List<User> users = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(newUser("benchmark-" + i + "@hm.edu"));
+        }
+        for (int i = 0; i < USERS * RENTALS_PER_USER; i++) {
+            items.add(newItem("Benchmark-Rental-Item-" + i));
+        }
+        userRepository.saveAll(users);
+        itemRepository.saveAll(items);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < items.size(); i++) {
+            User user = users.get(i / RENTALS_PER_USER);
+            rentalService.rentItem(user.getId(), items.get(i).getId(), LocalDate.now().plusDays(7));
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("{} Ausleihen in {} ms ({} Statements)", items.size(), elapsedMs,
+                statistics.getPrepareStatementCount());
+
+        assertEquals(items.size(), statistics.getEntityInsertCount());
+    }
+
+    private static Item newItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setSize("M");
+        item.setLocation(Item.Location.PASING);
+        item.setGender(Item.Gender.UNISEX);
+        item.setCategory(Item.Category.EQUIPMENT);
+        item.setSubcategory(Item.Subcategory.HELME);
+        item.setZustand(Item.Zustand.NEU);
+        return item;
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setFullName("Benchmark");
+        user.setEmail(email);
+        user.setPassword("geheim");
+        user.setRole(User.Role.USER);
+        return user;
+    }
+}
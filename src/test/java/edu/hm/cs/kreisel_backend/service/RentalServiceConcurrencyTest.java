@@ -0,0 +1,127 @@
+package edu.hm.cs.kreisel_backend.service;
+
+import edu.hm.cs.kreisel_backend.model.Item;
+import edu.hm.cs.kreisel_backend.model.User;
+import edu.hm.cs.kreisel_backend.repository.ItemRepository;
+import edu.hm.cs.kreisel_backend.repository.RentalRepository;
+import edu.hm.cs.kreisel_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Eigene Datenbank und eigener Kontext: Items und User werden direkt über die Repositories
+// angelegt (an Indizes und Cache vorbei), und offene Ausleihen bleiben zurück.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rentalconcurrency;DB_CLOSE_ON_EXIT=FALSE")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class RentalServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Test
+    void concurrentCheckoutsOfSameItemCreateExactlyOneRental() throws Exception {
+        Item item = itemRepository.save(newItem("Stresstest-Snowboard"));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            users.add(userRepository.save(newUser("same-item-" + i + "@hm.edu")));
+        }
+
+        int successes = runConcurrently(users.stream()
+                .map(user -> (Runnable) () -> rentalService.rentItem(user.getId(), item.getId(), LocalDate.now().plusDays(7)))
+                .toList());
+
+        assertEquals(1, successes);
+        assertEquals(1, rentalRepository.countByItemIdAndReturnDateIsNull(item.getId()));
+        assertFalse(itemRepository.findById(item.getId()).orElseThrow().isAvailable());
+    }
+
+    @Test
+    void concurrentCheckoutsOfOneUserRespectActiveRentalLimit() throws Exception {
+        User user = userRepository.save(newUser("same-user@hm.edu"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(itemRepository.save(newItem("Stresstest-Helm-" + i)));
+        }
+
+        int successes = runConcurrently(items.stream()
+                .map(item -> (Runnable) () -> rentalService.rentItem(user.getId(), item.getId(), LocalDate.now().plusDays(7)))
+                .toList());
+
+        assertEquals(5, successes);
+        assertEquals(5, rentalRepository.findByUserIdAndReturnDateIsNull(user.getId()).size());
+    }
+
+    // Startet alle Aufgaben gleichzeitig und zählt, wie viele ohne Exception durchlaufen
+    private int runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.run();
+                        successes.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // abgelehnte Ausleihe - erwartet
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return successes.get();
+    }
+
+    private static Item newItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setSize("M");
+        item.setLocation(Item.Location.PASING);
+        item.setGender(Item.Gender.UNISEX);
+        item.setCategory(Item.Category.EQUIPMENT);
+        item.setSubcategory(Item.Subcategory.HELME);
+        item.setZustand(Item.Zustand.NEU);
+        return item;
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setFullName("Stresstest");
+        user.setEmail(email);
+        user.setPassword("geheim");
+        user.setRole(User.Role.USER);
+        return user;
+    }
+}